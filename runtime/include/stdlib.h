@@ -1 +1,2 @@
 #pragma once
+typedef long size_t;
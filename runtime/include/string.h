@@ -0,0 +1,6 @@
+#pragma once
+
+/*
+ * memset, memcpy, memmove and memcmp are builtins. They work on arrays, with sizes in bytes that
+ * are a whole number of elements, and on pointers into linear memory.
+ */
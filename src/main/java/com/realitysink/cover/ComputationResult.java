@@ -1,13 +1,46 @@
 package com.realitysink.cover;
 
+import java.nio.IntBuffer;
+
 public class ComputationResult {
     public boolean isPow;
     public boolean isBounty;
     public byte[] powHash;
     public byte[] targetWas;
     public int[] storage;
+    /**
+     * Storage held outside the Java heap (or any other IntBuffer view). If set, it is used instead
+     * of {@link #storage}. Elements are addressed from index 0, independent of the position.
+     */
+    public IntBuffer storageBuffer;
     public int[] personalized_ints;
     public int storage_size;
+    /**
+     * If set, the writes of the program to its bound storage are tracked: after the run
+     * {@link #changedIndices} lists the indices that were changed and {@link #storageDigest} is
+     * set to the digest of the input chained with the changes that remain in the final storage.
+     */
+    public boolean trackStorageChanges;
+    public int[] changedIndices;
+    /**
+     * With {@link #trackStorageChanges}: the digest of the storage, see
+     * {@link com.realitysink.cover.runtime.CoverStorageTracker#digest(int[])}. Set it to the digest
+     * of the input storage before the run.
+     */
+    public long storageDigest;
+    public Throwable failure;
+    public boolean budgetExhausted;
+    public boolean cancelled;
+    public boolean timedOut;
+    /**
+     * Set if the execution was stopped because it tried to allocate more than its memory limit.
+     */
+    public boolean memoryLimitExceeded;
+    /**
+     * The most bytes of arrays, objects and linear memory the execution had in use at once,
+     * including the global arrays of the program.
+     */
+    public long peakBytes;
 
     public ComputationResult(){
         isBounty = false;
@@ -19,6 +52,24 @@ public class ComputationResult {
         storage_size = 0;
     }
 
+    /**
+     * Clears everything a run reports, so a result that is reused for the next run does not carry
+     * over the outcome of the previous one. The input (<code>personalized_ints</code>, the storage,
+     * its digest and <code>targetWas</code>) is kept.
+     */
+    public void clearRunState() {
+        isBounty = false;
+        isPow = false;
+        powHash = new byte[16];
+        changedIndices = null;
+        failure = null;
+        budgetExhausted = false;
+        cancelled = false;
+        timedOut = false;
+        memoryLimitExceeded = false;
+        peakBytes = 0;
+    }
+
     public ComputationResult copy(){
         ComputationResult res = new ComputationResult();
         res.isBounty = isBounty;
@@ -26,8 +77,18 @@ public class ComputationResult {
         res.powHash = powHash;
         res.targetWas = targetWas;
         res.storage = storage;
+        res.storageBuffer = storageBuffer;
         res.personalized_ints = personalized_ints;
         res.storage_size = storage_size;
+        res.trackStorageChanges = trackStorageChanges;
+        res.changedIndices = changedIndices;
+        res.storageDigest = storageDigest;
+        res.failure = failure;
+        res.budgetExhausted = budgetExhausted;
+        res.cancelled = cancelled;
+        res.timedOut = timedOut;
+        res.memoryLimitExceeded = memoryLimitExceeded;
+        res.peakBytes = peakBytes;
         return res;
     }
 }
\ No newline at end of file
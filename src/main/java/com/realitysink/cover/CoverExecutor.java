@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import com.oracle.truffle.api.vm.PolyglotEngine.Value;
+import com.realitysink.cover.runtime.CoverCancellationToken;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverMemoryAccount;
+import com.realitysink.cover.runtime.CoverProgram;
+import com.realitysink.cover.runtime.SLNull;
+
+/**
+ * Runs Cover programs. Unlike the static methods in {@link CoverMain}, an executor keeps no state
+ * between executions: every execution gets its own engine and its own {@link CoverExecution}, which
+ * carries the caller's {@link ComputationResult} to the builtins. One executor can therefore be
+ * used from many threads at the same time. Parsed programs are shared through the program cache of
+ * {@link CoverLanguage}, and {@link #verifyBatch(Source, List) batches} of inputs for the same
+ * program share one engine as well.
+ */
+public final class CoverExecutor {
+    private static final String MAIN_FAILED = "main exited with code != 0";
+
+    private final InputStream in;
+    private final PrintStream out;
+    private volatile long budget = CoverExecution.UNLIMITED;
+    private volatile long memoryLimit = CoverMemoryAccount.DEFAULT_LIMIT;
+
+    public CoverExecutor() {
+        this(System.in, System.out);
+    }
+
+    public CoverExecutor(InputStream in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Limits every execution started from now on to the given number of cost units (loop
+     * iterations, calls and statements). An execution that exceeds it is aborted and its result is
+     * marked {@link ComputationResult#budgetExhausted budgetExhausted}.
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Limits the bytes of arrays, objects and linear memory every execution started from now on
+     * may have in use at once, the global arrays of the program included. An execution that exceeds
+     * it is aborted and its result is marked {@link ComputationResult#memoryLimitExceeded
+     * memoryLimitExceeded}; <code>malloc</code> returns <code>NULL</code> instead.
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public static Source createSource(String source) throws IOException {
+        return Source.fromReader(new InputStreamReader(new ByteArrayInputStream(source.getBytes())), "<stdin>").withMimeType(CoverLanguage.MIME_TYPE);
+    }
+
+    /**
+     * Runs the program and returns the value returned by <code>main_proxy</code>. The inputs are
+     * read from, and the results are written to, the given computation result, which may be null.
+     */
+    public Object run(Source source, ComputationResult result) throws IOException {
+        return run(source, result, null);
+    }
+
+    /**
+     * Like {@link #run(Source, ComputationResult)}, but the execution stops at the next loop
+     * iteration or call once the token is cancelled, in which case the result is marked
+     * {@link ComputationResult#cancelled cancelled}.
+     */
+    public Object run(Source source, ComputationResult result, CoverCancellationToken cancellationToken) throws IOException {
+        return evaluate(source, new CoverExecution[]{new CoverExecution(result, budget, cancellationToken, memoryLimit)});
+    }
+
+    /**
+     * Runs the program and fails if it does not complete normally.
+     */
+    public ComputationResult execute(Source source, ComputationResult result) throws IOException {
+        return execute(source, result, null);
+    }
+
+    private ComputationResult execute(Source source, ComputationResult result, CoverCancellationToken cancellationToken) throws IOException {
+        if (run(source, result, cancellationToken) != SLNull.SINGLETON) {
+            throw new SLException(MAIN_FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the program for at most the given number of milliseconds. If it takes longer, it is
+     * stopped and the result is marked {@link ComputationResult#timedOut timedOut}.
+     */
+    public ComputationResult execute(Source source, ComputationResult result, long timeoutMillis) throws IOException {
+        CoverCancellationToken token = CoverCancellationToken.withTimeout(timeoutMillis);
+        try {
+            return execute(source, result, token);
+        } finally {
+            token.dispose();
+        }
+    }
+
+    public ComputationResult execute(String source, ComputationResult result) throws IOException {
+        return execute(createSource(source), result);
+    }
+
+    /**
+     * Runs the program once for every input, back to back in one engine on the same call target,
+     * and returns the inputs with their results filled in. An input for which the program fails,
+     * or for which <code>main</code> returns a value, gets the exception as its
+     * {@link ComputationResult#failure failure}; the remaining inputs are still run.
+     */
+    public ComputationResult[] verifyBatch(Source source, List<ComputationResult> inputs) throws IOException {
+        return verifyBatch(source, inputs, (CoverCancellationToken) null);
+    }
+
+    /**
+     * Like {@link #verifyBatch(Source, List)}; once the token is cancelled, the running and all
+     * remaining inputs are marked {@link ComputationResult#cancelled cancelled}.
+     */
+    public ComputationResult[] verifyBatch(Source source, List<ComputationResult> inputs, CoverCancellationToken cancellationToken) throws IOException {
+        CoverExecution[] executions = createExecutions(inputs, cancellationToken);
+        runBatch(newEngineEvaluator(source), executions, 0, executions.length);
+        checkReturnValues(executions);
+        return inputs.toArray(new ComputationResult[inputs.size()]);
+    }
+
+    public ComputationResult[] verifyBatch(String source, List<ComputationResult> inputs) throws IOException {
+        return verifyBatch(createSource(source), inputs);
+    }
+
+    /**
+     * Like {@link #verifyBatch(Source, List)}, but splits the inputs into one slice per thread of
+     * the pool and runs the slices in parallel.
+     */
+    public ComputationResult[] verifyBatch(final Source source, List<ComputationResult> inputs, ForkJoinPool pool) throws IOException {
+        final CoverExecution[] executions = createExecutions(inputs, null);
+        int slices = Math.max(1, Math.min(pool.getParallelism(), executions.length));
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            final int from = (int) ((long) executions.length * i / slices);
+            final int to = (int) ((long) executions.length * (i + 1) / slices);
+            tasks.add(pool.submit(new Callable<Void>() {
+                public Void call() throws IOException {
+                    runBatch(newEngineEvaluator(source), executions, from, to);
+                    return null;
+                }
+            }));
+        }
+        for (ForkJoinTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        checkReturnValues(executions);
+        return inputs.toArray(new ComputationResult[inputs.size()]);
+    }
+
+    private CoverExecution[] createExecutions(List<ComputationResult> inputs, CoverCancellationToken cancellationToken) {
+        CoverExecution[] executions = new CoverExecution[inputs.size()];
+        for (int i = 0; i < executions.length; i++) {
+            executions[i] = new CoverExecution(inputs.get(i), budget, cancellationToken, memoryLimit);
+        }
+        return executions;
+    }
+
+    /**
+     * Opens a session that runs batches of the program in one engine, with the parsed program
+     * pinned in the cache. The session must be used from one thread at a time and be closed.
+     */
+    public Session openSession(Source source) throws IOException {
+        return new Session(source);
+    }
+
+    /**
+     * Runs batches of one program, like {@link CoverExecutor#verifyBatch(Source, List)}, but
+     * creates the engine only once and never parses the program again.
+     */
+    public final class Session implements Closeable {
+        private final Source source;
+        private final CoverProgram program;
+        private final AtomicReference<CoverExecution[]> executions = new AtomicReference<>();
+        private final PolyglotEngine engine;
+
+        private Session(Source source) throws IOException {
+            this.source = source;
+            this.program = CoverLanguage.INSTANCE.pin(source);
+            this.engine = PolyglotEngine.newBuilder().setIn(in).setOut(out).config(CoverLanguage.MIME_TYPE, CoverExecution.CONFIG_KEY, executions).build();
+        }
+
+        public ComputationResult[] verifyBatch(List<ComputationResult> inputs, CoverCancellationToken cancellationToken) throws IOException {
+            CoverExecution[] batch = createExecutions(inputs, cancellationToken);
+            runBatch(new BatchEvaluator() {
+                public void evaluate(CoverExecution[] slice) throws IOException {
+                    executions.set(slice);
+                    try {
+                        engine.eval(source);
+                    } finally {
+                        executions.set(null);
+                    }
+                }
+            }, batch, 0, batch.length);
+            checkReturnValues(batch);
+            return inputs.toArray(new ComputationResult[inputs.size()]);
+        }
+
+        public void close() {
+            engine.dispose();
+            CoverLanguage.INSTANCE.unpin(program);
+        }
+    }
+
+    /** Evaluates the program for a slice of a batch. */
+    private interface BatchEvaluator {
+        void evaluate(CoverExecution[] executions) throws IOException;
+    }
+
+    private BatchEvaluator newEngineEvaluator(final Source source) {
+        return new BatchEvaluator() {
+            public void evaluate(CoverExecution[] executions) throws IOException {
+                CoverExecutor.this.evaluate(source, executions);
+            }
+        };
+    }
+
+    /**
+     * Runs executions[from, to). If the program fails for one input, that input is marked as
+     * failed and the batch continues with the next input.
+     */
+    private void runBatch(BatchEvaluator evaluator, CoverExecution[] executions, int from, int to) throws IOException {
+        int next = from;
+        while (next < to) {
+            try {
+                evaluator.evaluate(Arrays.copyOfRange(executions, next, to));
+                return;
+            } catch (RuntimeException ex) {
+                while (next < to && executions[next].isCompleted()) {
+                    next++;
+                }
+                if (next == to) {
+                    throw ex;
+                }
+                ComputationResult failed = executions[next].getResult();
+                if (failed != null) {
+                    failed.failure = ex;
+                }
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Marks the inputs for which <code>main</code> returned a value as failed, the same as
+     * {@link #execute(Source, ComputationResult)} does for a single input.
+     */
+    private static void checkReturnValues(CoverExecution[] executions) {
+        for (CoverExecution execution : executions) {
+            ComputationResult result = execution.getResult();
+            if (result != null && result.failure == null && execution.isCompleted() && execution.getReturnValue() != SLNull.SINGLETON) {
+                result.failure = new SLException(MAIN_FAILED);
+            }
+        }
+    }
+
+    private Object evaluate(Source source, CoverExecution[] executions) throws IOException {
+        PolyglotEngine engine = PolyglotEngine.newBuilder().setIn(in).setOut(out).config(CoverLanguage.MIME_TYPE, CoverExecution.CONFIG_KEY, executions).build();
+        try {
+            Value value = engine.eval(source);
+            if (value == null) {
+                throw new SLException("No function main() defined?");
+            }
+            return value.get();
+        } finally {
+            engine.dispose();
+        }
+    }
+}
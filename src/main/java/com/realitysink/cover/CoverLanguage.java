@@ -22,6 +22,7 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.oracle.truffle.api.*;
 import com.oracle.truffle.api.debug.DebuggerTags;
@@ -41,6 +42,11 @@ import com.realitysink.cover.nodes.controlflow.SLFunctionBodyNode;
 import com.realitysink.cover.nodes.expression.CoverFunctionLiteralNode;
 import com.realitysink.cover.parser.CoverParseException;
 import com.realitysink.cover.parser.CoverParser;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverMemory;
+import com.realitysink.cover.runtime.CoverProgram;
+import com.realitysink.cover.runtime.CoverProgramCache;
+import com.realitysink.cover.runtime.CoverProgramInstance;
 import com.realitysink.cover.runtime.SLContext;
 import com.realitysink.cover.runtime.SLFunction;
 
@@ -51,22 +57,67 @@ public final class CoverLanguage extends TruffleLanguage<SLContext> {
     public static final String MIME_TYPE = "application/x-cover";
 
     public static final CoverLanguage INSTANCE = new CoverLanguage();
+
+    private final CoverProgramCache programCache = new CoverProgramCache();
+
     private CoverLanguage() {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     protected SLContext createContext(Env env) {
         BufferedReader in = new BufferedReader(new InputStreamReader(env.in()));
         PrintWriter out = new PrintWriter(env.out(), true);
-        return new SLContext(env, in, out);
+        Object config = env.getConfig().get(CoverExecution.CONFIG_KEY);
+        AtomicReference<CoverExecution[]> executions;
+        if (config instanceof AtomicReference) {
+            executions = (AtomicReference<CoverExecution[]>) config;
+        } else if (config != null) {
+            executions = new AtomicReference<>((CoverExecution[]) config);
+        } else {
+            executions = new AtomicReference<>(new CoverExecution[]{new CoverExecution(null)});
+        }
+        return new SLContext(env, in, out, executions);
     }
 
     @Override
     protected CallTarget parse(Source source, Node node, String... argumentNames) throws IOException {
+        return getProgram(source).getEntryCallTarget();
+    }
+
+    private CoverProgram getProgram(Source source) throws IOException {
+        String key = CoverProgramCache.keyOf(source);
+        CoverProgram program = programCache.lookup(key);
+        if (program == null) {
+            program = new CoverProgram(key, source, parseInstance(source));
+            programCache.put(program);
+        }
+        return program;
+    }
+
+    /**
+     * The program for the source, parsed if it is not cached yet. It stays in the cache until it
+     * is {@link #unpin unpinned}, so evaluating the source in the meantime never parses it again.
+     */
+    public CoverProgram pin(Source source) throws IOException {
+        CoverProgram program = getProgram(source);
+        programCache.pin(program);
+        return program;
+    }
+
+    public void unpin(CoverProgram program) {
+        programCache.unpin(program);
+    }
+
+    public static CoverProgramInstance parseInstance(Source source) throws IOException {
         CoverScope scope = new CoverScope(null);
+        CallTarget globalInitializer;
+        CoverMemory memory;
         try {
             CoverParser parser = new CoverParser(source, scope);
             parser.parse();
+            globalInitializer = parser.createGlobalInitializer();
+            memory = parser.usesLinearMemory() ? new CoverMemory() : null;
         } catch (CoverParseException ex) {
             if (ex.getNode() != null) {
                 CoverParser.printTree(ex.getNode(), 1);
@@ -76,8 +127,20 @@ public final class CoverLanguage extends TruffleLanguage<SLContext> {
             throw new IOException(ex);
         }
 
-        SLFunction main = scope.findReference("main_proxy").getFunction();
-        return main.getCallTarget();
+        // work packages are entered through main_proxy, plain programs through main
+        CoverReference entry = scope.findReference("main_proxy");
+        if (entry == null) {
+            entry = scope.findReference("main");
+        }
+        if (entry == null || entry.getFunction() == null) {
+            throw new IOException("No function main_proxy() or main() defined");
+        }
+        SLFunction main = entry.getFunction();
+        return new CoverProgramInstance(main.getCallTarget(), globalInitializer, scope, memory);
+    }
+
+    public CoverProgramCache getProgramCache() {
+        return programCache;
     }
 
     @Override
@@ -104,4 +167,12 @@ public final class CoverLanguage extends TruffleLanguage<SLContext> {
         CompilerAsserts.neverPartOfCompilation();
         return super.findContext(super.createFindContextNode());
     }
+
+    public Node createFindContextNode0() {
+        return createFindContextNode();
+    }
+
+    public SLContext findContext0(Node contextNode) {
+        return findContext(contextNode);
+    }
 }
@@ -22,18 +22,20 @@ import java.util.Map;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
 import com.oracle.truffle.api.source.Source;
-import com.oracle.truffle.api.vm.PolyglotEngine;
 import com.oracle.truffle.api.vm.PolyglotEngine.Instrument;
-import com.oracle.truffle.api.vm.PolyglotEngine.Value;
 import com.oracle.truffle.tools.TruffleProfiler;
 import com.realitysink.cover.parser.CoverParser;
 import com.realitysink.cover.runtime.SLNull;
 import com.realitysink.cover.runtime.SLUndefinedNameException;
 
+/**
+ * Command line entry point and the original static API, which runs one program at a time against
+ * the shared {@link #getComputationResult() computation result}. Use {@link CoverExecutor} to run
+ * programs concurrently.
+ */
 public final class CoverMain {
 
     static boolean skipCompResult = false;
-    static PolyglotEngine engine = null;
     static ComputationResult computationResult = new ComputationResult();
 
     public static ComputationResult getComputationResult() {
@@ -56,24 +58,58 @@ public final class CoverMain {
         executeSource(source, System.in, System.out);
     }
 
+    /**
+     * Prepares the shared computation result for the next program run: clears what the previous
+     * run reported and makes the given storage the <code>s</code> array, which the program reads
+     * and writes in place. Without a storage the previous one is kept.
+     */
+    private static void startRun(int[] storage) {
+        if (computationResult == null) {
+            return;
+        }
+        computationResult.clearRunState();
+        if (storage != null) {
+            computationResult.storage = storage;
+            computationResult.storageBuffer = null;
+            computationResult.storage_size = storage.length;
+        }
+    }
+
     public static ComputationResult executeSource(String source, InputStream in, PrintStream out) throws IOException {
-        return executeSource((Source.fromReader(new InputStreamReader(new ByteArrayInputStream(source.getBytes())), "<stdin>").withMimeType(CoverLanguage.MIME_TYPE)), in, out);
+        return executeSource(CoverExecutor.createSource(source), in, out);
     }
 
     public static ComputationResult executeSource(String source, InputStream in, PrintStream out, int[] storage) throws IOException {
-        return executeSource((Source.fromReader(new InputStreamReader(new ByteArrayInputStream(source.getBytes())), "<stdin>").withMimeType(CoverLanguage.MIME_TYPE)), in, out, storage);
+        return executeSource(CoverExecutor.createSource(source), in, out, storage);
     }
 
     private static ComputationResult executeSource(Source source, InputStream in, PrintStream out) {
         return executeSource(source, in, out, null);
     }
 
+    /**
+     * Runs the program for at most <code>timeoutMillis</code> milliseconds. A program that takes
+     * longer is stopped cooperatively and the returned result is marked
+     * {@link ComputationResult#timedOut timedOut}. Like the other <code>executeSource</code>
+     * methods, a failure is printed and returned as the {@link ComputationResult#failure failure}
+     * of the result.
+     */
+    public synchronized static ComputationResult executeSource(String source, InputStream in, PrintStream out, int[] storage, long timeoutMillis) throws IOException {
+        startRun(storage);
+        try {
+            new CoverExecutor(in, out).execute(CoverExecutor.createSource(source), computationResult, timeoutMillis);
+        } catch (Throwable ex) {
+            handleFailure(ex, out);
+        }
+        return computationResult.copy();
+    }
+
     public static ComputationResult executeSourceWithoutExceptionHandler(String source, InputStream in, PrintStream out) throws IOException {
-        return executeSourceWithoutExceptionHandler((Source.fromReader(new InputStreamReader(new ByteArrayInputStream(source.getBytes())), "<stdin>").withMimeType(CoverLanguage.MIME_TYPE)), in, out);
+        return executeSourceWithoutExceptionHandler(CoverExecutor.createSource(source), in, out);
     }
 
     public static ComputationResult executeSourceWithoutExceptionHandler(String source, InputStream in, PrintStream out, int[] storage) throws IOException {
-        return executeSourceWithoutExceptionHandler((Source.fromReader(new InputStreamReader(new ByteArrayInputStream(source.getBytes())), "<stdin>").withMimeType(CoverLanguage.MIME_TYPE)), in, out, storage);
+        return executeSourceWithoutExceptionHandler(CoverExecutor.createSource(source), in, out, storage);
     }
 
     private static ComputationResult executeSourceWithoutExceptionHandler(Source source, InputStream in, PrintStream out) throws IOException {
@@ -81,59 +117,43 @@ public final class CoverMain {
     }
 
     private synchronized static ComputationResult executeSource(Source source, InputStream in, PrintStream out, int[] storage) {
-
-        // WARNING: This makes initialization quick, but you will not be able to change in/out anymore
-        if (engine == null) {
-            engine = PolyglotEngine.newBuilder().setIn(in).setOut(out).build();
-            assert engine.getLanguages().containsKey(CoverLanguage.MIME_TYPE);
-        }
-
+        startRun(storage);
         try {
-            Value result = engine.eval(source);
-
-            if (result == null) {
-                throw new SLException("No function main() defined?");
-            } else if (result.get() != SLNull.SINGLETON) {
-                out.println("Program exited with code: " + result.get());
+            Object result = new CoverExecutor(in, out).run(source, computationResult);
+            if (result != SLNull.SINGLETON) {
+                out.println("Program exited with code: " + result);
             }
 
         } catch (Throwable ex) {
-            Throwable cause = ex.getCause();
-            if (cause instanceof UnsupportedSpecializationException) {
-                out.println(cause.getMessage());
-                cause.printStackTrace();
-            } else if (cause instanceof SLUndefinedNameException) {
-                out.println(cause.getMessage());
-                cause.printStackTrace();
-            } else {
-                ex.printStackTrace(out);
-            }
+            handleFailure(ex, out);
         }
 
-        engine.dispose();
-
         if (skipCompResult) return null;
         else return computationResult.copy();
     }
 
-    private synchronized static ComputationResult executeSourceWithoutExceptionHandler(Source source, InputStream in, PrintStream out, int[] storage) throws IOException {
-
-        // WARNING: This makes initialization quick, but you will not be able to change in/out anymore
-        if (engine == null) {
-            engine = PolyglotEngine.newBuilder().setIn(in).setOut(out).build();
-            assert engine.getLanguages().containsKey(CoverLanguage.MIME_TYPE);
+    /**
+     * Prints the failure of a program run and records it in the computation result.
+     */
+    private static void handleFailure(Throwable ex, PrintStream out) {
+        if (computationResult != null) {
+            computationResult.failure = ex;
         }
-
-
-        Value result = engine.eval(source);
-        if (result == null) {
-            throw new SLException("No function main() defined?");
-        } else if (result.get() != SLNull.SINGLETON) {
-            throw new SLException("main exited with code != 0");
-
+        Throwable cause = ex.getCause();
+        if (cause instanceof UnsupportedSpecializationException) {
+            out.println(cause.getMessage());
+            cause.printStackTrace();
+        } else if (cause instanceof SLUndefinedNameException) {
+            out.println(cause.getMessage());
+            cause.printStackTrace();
+        } else {
+            ex.printStackTrace(out);
         }
+    }
 
-        engine.dispose();
+    private synchronized static ComputationResult executeSourceWithoutExceptionHandler(Source source, InputStream in, PrintStream out, int[] storage) throws IOException {
+        startRun(storage);
+        new CoverExecutor(in, out).execute(source, computationResult);
 
         if (skipCompResult) return null;
         else return computationResult.copy();
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.runtime.CoverCancellationToken;
+
+/**
+ * Searches for a proof of work by running a program over and over with different
+ * <code>personalized_ints</code> on a number of worker threads. Every worker opens one
+ * {@link CoverExecutor.Session session}, so the program is parsed once and every chunk of
+ * candidates runs back to back on the same compiled call target. All workers stop as soon as one
+ * of them finds a candidate for which the program reports <code>isPow</code>, i.e. for which
+ * <code>check_pow</code> beat <code>targetWas</code>; candidates still running are cancelled at
+ * their next loop iteration or call. They also stop at the first candidate the program fails for,
+ * which {@link Result#getFailure()} reports: a program that fails for one nonce is not worth
+ * mining.
+ */
+public final class CoverMiner {
+
+    /**
+     * Fills in the <code>personalized_ints</code> of the candidate with the given number for the
+     * given worker. Every worker must produce its own, disjoint sequence.
+     */
+    public interface NonceGenerator {
+        void fill(int worker, long candidate, int[] personalizedInts);
+    }
+
+    /**
+     * The default sequence: the template's ints, with ints 0 and 1 replaced by the low and high
+     * word of <code>candidate * workers + worker</code>.
+     */
+    public static NonceGenerator interleaved(final int[] template, final int workers) {
+        return new NonceGenerator() {
+            public void fill(int worker, long candidate, int[] personalizedInts) {
+                System.arraycopy(template, 0, personalizedInts, 0, personalizedInts.length);
+                long nonce = candidate * workers + worker;
+                personalizedInts[0] = (int) nonce;
+                personalizedInts[1] = (int) (nonce >>> 32);
+            }
+        };
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final CoverExecutor executor;
+    private final int workers;
+    private final int chunkSize;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private volatile CoverCancellationToken cancellationToken = new CoverCancellationToken();
+
+    public CoverMiner(CoverExecutor executor, int workers) {
+        this(executor, workers, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CoverMiner(CoverExecutor executor, int workers, int chunkSize) {
+        this.executor = executor;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Stops all workers of a running {@link #mine}, which then returns without a solution.
+     */
+    public void stop() {
+        stopped.set(true);
+        cancellationToken.cancel();
+    }
+
+    /**
+     * Mines until a solution is found, the program fails for a candidate, {@link #stop()} is called
+     * or <code>maxMillis</code> (if positive) have passed. The template provides
+     * <code>targetWas</code> and the storage every candidate starts with.
+     */
+    public Result mine(final Source source, final ComputationResult template, final NonceGenerator generator, long maxMillis) throws IOException {
+        stopped.set(false);
+        cancellationToken = new CoverCancellationToken();
+        final AtomicReference<ComputationResult> solution = new AtomicReference<>();
+        final AtomicReference<ComputationResult> failed = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final long[] hashes = new long[workers];
+        final long deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1000000L : Long.MAX_VALUE;
+
+        List<Thread> threads = new ArrayList<>(workers);
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++) {
+            final int worker = w;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    try (CoverExecutor.Session session = executor.openSession(source)) {
+                        long candidate = 0;
+                        while (!stopped.get() && System.nanoTime() < deadline) {
+                            List<ComputationResult> chunk = new ArrayList<>(chunkSize);
+                            for (int i = 0; i < chunkSize; i++) {
+                                ComputationResult input = createCandidate(template);
+                                generator.fill(worker, candidate++, input.personalized_ints);
+                                chunk.add(input);
+                            }
+                            for (ComputationResult result : session.verifyBatch(chunk, cancellationToken)) {
+                                if (result.cancelled) {
+                                    continue;
+                                } else if (result.failure != null) {
+                                    failed.compareAndSet(null, result);
+                                    stop();
+                                    continue;
+                                }
+                                hashes[worker]++;
+                                if (result.isPow && solution.compareAndSet(null, result)) {
+                                    stop();
+                                }
+                            }
+                        }
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                        stop();
+                    }
+                }
+            }, "cover-miner-" + w);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                stop();
+                Thread.currentThread().interrupt();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (error.get() instanceof IOException) {
+            throw (IOException) error.get();
+        } else if (error.get() != null) {
+            throw new IllegalStateException(error.get());
+        }
+        return new Result(solution.get(), failed.get(), hashes, elapsed);
+    }
+
+    private static ComputationResult createCandidate(ComputationResult template) {
+        ComputationResult input = new ComputationResult();
+        input.targetWas = template.targetWas;
+        input.storage = template.storage.clone();
+        input.storage_size = template.storage_size;
+        input.personalized_ints = new int[template.personalized_ints.length];
+        return input;
+    }
+
+    /**
+     * The outcome of a mining run: the solution (or null), the first candidate the program failed
+     * for (or null) and the hash rates of the workers. Failed candidates are not counted as hashes.
+     */
+    public static final class Result {
+        private final ComputationResult solution;
+        private final ComputationResult failure;
+        private final long[] hashes;
+        private final long elapsedNanos;
+
+        Result(ComputationResult solution, ComputationResult failure, long[] hashes, long elapsedNanos) {
+            this.solution = solution;
+            this.failure = failure;
+            this.hashes = hashes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public ComputationResult getSolution() {
+            return solution;
+        }
+
+        /**
+         * The first candidate the program failed for, with the exception in its
+         * {@link ComputationResult#failure failure}, or null.
+         */
+        public ComputationResult getFailure() {
+            return failure;
+        }
+
+        public long getHashes(int worker) {
+            return hashes[worker];
+        }
+
+        public long getTotalHashes() {
+            long total = 0;
+            for (long h : hashes) {
+                total += h;
+            }
+            return total;
+        }
+
+        public double getHashesPerSecond(int worker) {
+            return hashes[worker] * 1e9 / elapsedNanos;
+        }
+
+        public double getTotalHashesPerSecond() {
+            return getTotalHashes() * 1e9 / elapsedNanos;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            String outcome = solution != null ? "solution found" : failure != null ? "program failed: " + failure.failure : "no solution";
+            sb.append(String.format("%s after %.1f s, %.1f hashes/s", outcome, elapsedNanos / 1e9, getTotalHashesPerSecond()));
+            for (int i = 0; i < hashes.length; i++) {
+                sb.append(String.format("%n  worker %d: %.1f hashes/s", i, getHashesPerSecond(i)));
+            }
+            return sb.toString();
+        }
+    }
+}
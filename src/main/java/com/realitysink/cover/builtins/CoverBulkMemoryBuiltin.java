@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverRuntimeException;
+import com.realitysink.cover.runtime.CoverStorageTracker;
+
+/**
+ * Common code of <code>memset</code>, <code>memcpy</code>, <code>memmove</code> and
+ * <code>memcmp</code>. Like in C, sizes are in bytes; on arrays they must be a whole number of
+ * elements.
+ */
+public abstract class CoverBulkMemoryBuiltin extends CoverTypedExpressionNode {
+
+    /**
+     * The number of elements in a block of <code>size</code> bytes.
+     */
+    protected final int elements(long size, int elementSize) {
+        if (size < 0 || size % elementSize != 0 || size / elementSize > Integer.MAX_VALUE) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "size " + size + " is not a whole number of " + elementSize + " byte elements");
+        }
+        return (int) (size / elementSize);
+    }
+
+    protected final CoverRuntimeException outOfBounds(long size) {
+        CompilerDirectives.transferToInterpreter();
+        return new CoverRuntimeException(this, "block of " + size + " bytes out of bounds");
+    }
+
+    /**
+     * The tracker to report the writes to if the array is the tracked storage of the execution,
+     * null otherwise.
+     */
+    protected static CoverStorageTracker trackerOf(VirtualFrame frame, Object array) {
+        CoverStorageTracker tracker = CoverExecution.getStorageTracker(frame);
+        if (tracker != null && CoverExecution.fromFrame(frame).getBoundS() == array) {
+            return tracker;
+        }
+        return null;
+    }
+
+    /**
+     * Replicates the low byte of the value into every byte of a long, like <code>memset</code>
+     * fills memory.
+     */
+    protected static long replicate(long value) {
+        return (value & 0xFF) * 0x0101010101010101L;
+    }
+
+    /**
+     * The <code>memcmp</code> result for the first two elements that differ: the difference of
+     * their first differing bytes in memory (little endian) order.
+     */
+    protected static long compareBytes(long a, long b) {
+        int shift = Long.numberOfTrailingZeros(a ^ b) & ~7;
+        return ((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF);
+    }
+
+    /**
+     * Fills an int array or buffer one element at a time, reporting every write to the tracker if
+     * there is one.
+     */
+    @TruffleBoundary
+    protected static void trackedFill(CoverStorageTracker tracker, Object array, int count, int value) {
+        if (count > length(array)) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = 0; i < count; i++) {
+            if (tracker != null) {
+                tracker.written(i, get(array, i), value);
+            }
+            put(array, i, value);
+        }
+    }
+
+    /**
+     * Copies between int arrays and buffers one element at a time, reporting every write to the
+     * tracker if there is one.
+     */
+    @TruffleBoundary
+    protected static void trackedCopy(CoverStorageTracker tracker, Object target, Object source, int count) {
+        if (count > length(target) || count > length(source)) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = 0; i < count; i++) {
+            int value = get(source, i);
+            if (tracker != null) {
+                tracker.written(i, get(target, i), value);
+            }
+            put(target, i, value);
+        }
+    }
+
+    @TruffleBoundary
+    protected static long compareInts(Object a, Object b, int count) {
+        if (count > length(a) || count > length(b)) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = 0; i < count; i++) {
+            int x = get(a, i);
+            int y = get(b, i);
+            if (x != y) {
+                return compareBytes(x & 0xFFFFFFFFL, y & 0xFFFFFFFFL);
+            }
+        }
+        return 0;
+    }
+
+    private static int length(Object array) {
+        return array instanceof int[] ? ((int[]) array).length : ((IntBuffer) array).limit();
+    }
+
+    private static int get(Object array, int index) {
+        return array instanceof int[] ? ((int[]) array)[index] : ((IntBuffer) array).get(index);
+    }
+
+    private static void put(Object array, int index, int value) {
+        if (array instanceof int[]) {
+            ((int[]) array)[index] = value;
+        } else {
+            ((IntBuffer) array).put(index, value);
+        }
+    }
+}
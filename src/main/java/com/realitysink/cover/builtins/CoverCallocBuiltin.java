@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Allocates a zeroed block for <code>count</code> elements of <code>size</code> bytes on the heap
+ * of the linear memory. Both operands are unsigned; if their product does not fit in 63 bits, the
+ * allocation fails and <code>NULL</code> is returned instead of a block of the wrapped size.
+ */
+@NodeInfo(shortName = "calloc")
+@NodeChildren({@NodeChild("count"), @NodeChild("size")})
+public abstract class CoverCallocBuiltin extends CoverTypedExpressionNode {
+    private static final CoverType VOID_POINTER = CoverType.pointerTo(CoverType.VOID);
+
+    @Specialization
+    public long calloc(VirtualFrame frame, long count, long size) {
+        long length;
+        if (count == 0 || size == 0) {
+            length = 0;
+        } else if (count < 0 || size < 0 || count > Long.MAX_VALUE / size) {
+            return 0;
+        } else {
+            length = count * size;
+        }
+        return CoverExecution.fromFrame(frame).getMemory().allocateHeap(length);
+    }
+
+    @Override
+    public CoverType getType() {
+        return VOID_POINTER;
+    }
+}
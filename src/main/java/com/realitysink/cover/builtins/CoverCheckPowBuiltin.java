@@ -19,12 +19,13 @@ package com.realitysink.cover.builtins;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.realitysink.cover.ComputationResult;
-import com.realitysink.cover.CoverMain;
 import com.realitysink.cover.nodes.CoverScope;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -47,12 +48,12 @@ public abstract class CoverCheckPowBuiltin extends CoverTypedExpressionNode {
     }
 
     @Specialization
-    public long checkpow(long a, long b, long c, long d) {
+    public long checkpow(VirtualFrame frame, long a, long b, long c, long d) {
         ByteBuffer hashinp = ByteBuffer.allocate(12 * 4);
         hashinp.order(ByteOrder.LITTLE_ENDIAN);
 
         hashinp.putInt((int) a).putInt((int) b).putInt((int) c).putInt((int) d);
-        ComputationResult r = CoverMain.getComputationResult();
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
 
         for (int i = 0; i < 8; i++)
             hashinp.putInt(r.personalized_ints[i]);
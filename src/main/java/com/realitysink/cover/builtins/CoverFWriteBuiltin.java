@@ -68,6 +68,17 @@ public abstract class CoverFWriteBuiltin extends CoverTypedExpressionNode {
         return null; // is actually a void function
     }
 
+    @Specialization
+    public Object fwrite(int[] ptr, long size, long count, long stream) {
+        long totalSize = size * count;
+        byte[] bytes = new byte[(int) totalSize];
+        for (int i=0;i<totalSize;i++) {
+            bytes[i] = (byte) ptr[i];
+        }
+        doWrite(bytes, size, count, stream);
+        return null; // is actually a void function
+    }
+
     @TruffleBoundary
     private void doWrite(byte[] bytes, long size, long count, long stream) {
         // stream is ignored, we always write to stdout
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverMemory;
+
+/**
+ * Does nothing: the heap of the {@link CoverMemory linear memory} is released as a whole when the
+ * run is over.
+ */
+@NodeInfo(shortName = "free")
+@NodeChildren({@NodeChild("pointer")})
+public abstract class CoverFreeBuiltin extends CoverTypedExpressionNode {
+
+    @Specialization
+    public long free(long pointer) {
+        return 0;
+    }
+
+    @Override
+    public CoverType getType() {
+        return CoverType.VOID;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Allocates a zeroed block on the heap of the linear memory. Returns <code>NULL</code> when the
+ * memory is exhausted.
+ */
+@NodeInfo(shortName = "malloc")
+@NodeChildren({@NodeChild("size")})
+public abstract class CoverMallocBuiltin extends CoverTypedExpressionNode {
+    private static final CoverType VOID_POINTER = CoverType.pointerTo(CoverType.VOID);
+
+    @Specialization
+    public long malloc(VirtualFrame frame, long size) {
+        return CoverExecution.fromFrame(frame).getMemory().allocateHeap(size);
+    }
+
+    @Override
+    public CoverType getType() {
+        return VOID_POINTER;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * <code>memcmp(a, b, n)</code>: compares the first <code>n</code> bytes of two arrays of the same
+ * element type, or two blocks of linear memory. Arrays are compared a whole element at a time;
+ * the result is that of comparing their bytes in memory (little endian) order, like C does.
+ */
+@NodeInfo(shortName = "memcmp")
+@NodeChildren({
+    @NodeChild(value = "a", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "b", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "size", type = CoverTypedExpressionNode.class)
+})
+public abstract class CoverMemcmpBuiltin extends CoverBulkMemoryBuiltin {
+
+    @Specialization
+    public long memcmp(int[] a, int[] b, long size) {
+        int count = elements(size, 4);
+        if (count > a.length || count > b.length) {
+            throw outOfBounds(size);
+        }
+        for (int i = 0; i < count; i++) {
+            if (a[i] != b[i]) {
+                return compareBytes(a[i] & 0xFFFFFFFFL, b[i] & 0xFFFFFFFFL);
+            }
+        }
+        return 0;
+    }
+
+    @Specialization
+    public long memcmp(IntBuffer a, int[] b, long size) {
+        return compareIntBuffers(a, b, size);
+    }
+
+    @Specialization
+    public long memcmp(int[] a, IntBuffer b, long size) {
+        return compareIntBuffers(a, b, size);
+    }
+
+    @Specialization
+    public long memcmp(IntBuffer a, IntBuffer b, long size) {
+        return compareIntBuffers(a, b, size);
+    }
+
+    private long compareIntBuffers(Object a, Object b, long size) {
+        int count = elements(size, 4);
+        try {
+            return compareInts(a, b, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+    }
+
+    @Specialization
+    public long memcmp(long[] a, long[] b, long size) {
+        int count = elements(size, 8);
+        if (count > a.length || count > b.length) {
+            throw outOfBounds(size);
+        }
+        for (int i = 0; i < count; i++) {
+            if (a[i] != b[i]) {
+                return compareBytes(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    @Specialization
+    public long memcmp(double[] a, double[] b, long size) {
+        int count = elements(size, 8);
+        if (count > a.length || count > b.length) {
+            throw outOfBounds(size);
+        }
+        for (int i = 0; i < count; i++) {
+            long x = Double.doubleToRawLongBits(a[i]);
+            long y = Double.doubleToRawLongBits(b[i]);
+            if (x != y) {
+                return compareBytes(x, y);
+            }
+        }
+        return 0;
+    }
+
+    @Specialization
+    public long memcmp(float[] a, float[] b, long size) {
+        int count = elements(size, 4);
+        if (count > a.length || count > b.length) {
+            throw outOfBounds(size);
+        }
+        for (int i = 0; i < count; i++) {
+            int x = Float.floatToRawIntBits(a[i]);
+            int y = Float.floatToRawIntBits(b[i]);
+            if (x != y) {
+                return compareBytes(x & 0xFFFFFFFFL, y & 0xFFFFFFFFL);
+            }
+        }
+        return 0;
+    }
+
+    @Specialization
+    public long memcmp(VirtualFrame frame, long a, long b, long size) {
+        try {
+            return CoverExecution.fromFrame(frame).getMemory().compare(a, b, size);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+    }
+
+    @Override
+    public CoverType getType() {
+        return CoverType.SIGNED_INT;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverStorageTracker;
+
+/**
+ * <code>memcpy(a, b, n)</code> and <code>memmove(a, b, n)</code>: copies the first
+ * <code>n</code> bytes of an array into another array of the same element type, or a block of
+ * linear memory. Arrays are copied with <code>System.arraycopy</code>. Both builtins allow the
+ * blocks to overlap. Returns the target.
+ */
+@NodeInfo(shortName = "memcpy")
+@NodeChildren({
+    @NodeChild(value = "target", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "source", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "size", type = CoverTypedExpressionNode.class)
+})
+@NodeField(name = "type", type = CoverType.class)
+public abstract class CoverMemcpyBuiltin extends CoverBulkMemoryBuiltin {
+
+    @Specialization
+    public Object memcpy(VirtualFrame frame, int[] target, int[] source, long size) {
+        int count = elements(size, 4);
+        try {
+            CoverStorageTracker tracker = trackerOf(frame, target);
+            if (tracker != null) {
+                trackedCopy(tracker, target, source, count);
+            } else {
+                System.arraycopy(source, 0, target, 0, count);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memcpy(VirtualFrame frame, IntBuffer target, int[] source, long size) {
+        return copyInts(frame, target, source, size);
+    }
+
+    @Specialization
+    public Object memcpy(VirtualFrame frame, int[] target, IntBuffer source, long size) {
+        return copyInts(frame, target, source, size);
+    }
+
+    @Specialization
+    public Object memcpy(VirtualFrame frame, IntBuffer target, IntBuffer source, long size) {
+        return copyInts(frame, target, source, size);
+    }
+
+    private Object copyInts(VirtualFrame frame, Object target, Object source, long size) {
+        int count = elements(size, 4);
+        try {
+            trackedCopy(trackerOf(frame, target), target, source, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memcpy(long[] target, long[] source, long size) {
+        int count = elements(size, 8);
+        try {
+            System.arraycopy(source, 0, target, 0, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memcpy(double[] target, double[] source, long size) {
+        int count = elements(size, 8);
+        try {
+            System.arraycopy(source, 0, target, 0, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memcpy(float[] target, float[] source, long size) {
+        int count = elements(size, 4);
+        try {
+            System.arraycopy(source, 0, target, 0, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public long memcpy(VirtualFrame frame, long target, long source, long size) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().copy(target, source, size);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.builtins;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverStorageTracker;
+
+/**
+ * <code>memset(a, c, n)</code>: sets every byte of the first <code>n</code> bytes of an array, or
+ * of a block of linear memory, to <code>c</code>. Arrays are filled with
+ * <code>Arrays.fill</code>. Returns the array or pointer.
+ */
+@NodeInfo(shortName = "memset")
+@NodeChildren({
+    @NodeChild(value = "target", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "value", type = CoverTypedExpressionNode.class),
+    @NodeChild(value = "size", type = CoverTypedExpressionNode.class)
+})
+@NodeField(name = "type", type = CoverType.class)
+public abstract class CoverMemsetBuiltin extends CoverBulkMemoryBuiltin {
+
+    @Specialization
+    public Object memset(VirtualFrame frame, int[] target, long value, long size) {
+        int count = elements(size, 4);
+        try {
+            CoverStorageTracker tracker = trackerOf(frame, target);
+            if (tracker != null) {
+                trackedFill(tracker, target, count, (int) replicate(value));
+            } else {
+                Arrays.fill(target, 0, count, (int) replicate(value));
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memset(VirtualFrame frame, IntBuffer target, long value, long size) {
+        int count = elements(size, 4);
+        try {
+            trackedFill(trackerOf(frame, target), target, count, (int) replicate(value));
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memset(long[] target, long value, long size) {
+        int count = elements(size, 8);
+        try {
+            Arrays.fill(target, 0, count, replicate(value));
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memset(double[] target, long value, long size) {
+        int count = elements(size, 8);
+        try {
+            Arrays.fill(target, 0, count, Double.longBitsToDouble(replicate(value)));
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public Object memset(float[] target, long value, long size) {
+        int count = elements(size, 4);
+        try {
+            Arrays.fill(target, 0, count, Float.intBitsToFloat((int) replicate(value)));
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+
+    @Specialization
+    public long memset(VirtualFrame frame, long target, long value, long size) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().fill(target, (byte) value, size);
+        } catch (IndexOutOfBoundsException e) {
+            throw outOfBounds(size);
+        }
+        return target;
+    }
+}
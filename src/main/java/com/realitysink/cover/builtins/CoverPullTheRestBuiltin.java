@@ -16,15 +16,17 @@
  */
 package com.realitysink.cover.builtins;
 
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.*;
-import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.realitysink.cover.ComputationResult;
-import com.realitysink.cover.CoverMain;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
-import com.realitysink.cover.nodes.SLExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverRuntimeException;
 
 @NodeInfo(shortName = "pull_the_rest")
 @NodeChildren({@NodeChild("array_m"), @NodeChild("array_s")})
@@ -35,15 +37,52 @@ public abstract class CoverPullTheRestBuiltin extends CoverTypedExpressionNode {
 
     }
     @Specialization
-    public Object pull(long[] array_m, long[] array_s) {
-        ComputationResult r = CoverMain.getComputationResult();
-        if(r.personalized_ints.length != array_m.length) { System.err.println("M != m in puller"); return null; }
-        if(r.storage.length != array_s.length) { System.err.println("Storage != s in puller ... CompRes has " + r.storage.length + ", array_s has " + array_s.length); return null; }
+    public Object pull(VirtualFrame frame, int[] array_m, int[] array_s) {
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
+        if (r == null) return null;
+
+        copy(r.personalized_ints, array_m, "m");
+        // s is usually bound to the storage of the result, then it is not copied
+        if (array_s != r.storage) {
+            copy(r.storage, array_s, "s");
+        }
+        return null;
+    }
+
+    @Specialization
+    public Object pull(VirtualFrame frame, int[] array_m, IntBuffer array_s) {
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
+        if (r == null) return null;
+
+        // an IntBuffer s is always the bound storage of the result
+        copy(r.personalized_ints, array_m, "m");
+        return null;
+    }
+
+    @Specialization
+    public Object pull(VirtualFrame frame, long[] array_m, long[] array_s) {
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
+        if (r == null) return null;
+
+        checkLength(r.personalized_ints.length, array_m.length, "m");
+        checkLength(r.storage.length, array_s.length, "s");
         for(int i=0;i<array_m.length;++i) array_m[i] = r.personalized_ints[i];
         for(int i=0;i<array_s.length;++i) array_s[i] = r.storage[i];
         return null;
     }
 
+    private void copy(int[] from, int[] to, String name) {
+        checkLength(from.length, to.length, name);
+        System.arraycopy(from, 0, to, 0, to.length);
+    }
+
+    private void checkLength(int expected, int actual, String name) {
+        if (expected != actual) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "pull_the_rest: " + name + " has " + actual + " elements, the computation result has " + expected);
+        }
+    }
+
     @Override
     public CoverType getType() {
         return CoverType.VOID;
@@ -17,37 +17,37 @@
 package com.realitysink.cover.builtins;
 
 import com.oracle.truffle.api.dsl.*;
-import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.realitysink.cover.ComputationResult;
-import com.realitysink.cover.CoverMain;
-import com.realitysink.cover.nodes.CoverReference;
-import com.realitysink.cover.nodes.CoverScope;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
-import com.realitysink.cover.parser.CoverParseException;
-@NodeFields({
-        @NodeField(name = "scope", type = CoverScope.class)
-})
+import com.realitysink.cover.runtime.CoverExecution;
+
 @NodeInfo(shortName = "sync_r")
+@NodeChild("array_r")
 public abstract class CoverSyncRBuiltin extends CoverTypedExpressionNode {
 
-    protected abstract CoverScope getScope();
-
     public CoverSyncRBuiltin() {
 
     }
     @Specialization
-    public Object sync() {
-        ComputationResult r = CoverMain.getComputationResult();
+    public Object sync(VirtualFrame frame, int[] array_r) {
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
+        if(r==null) return null;
+
+        r.isPow = array_r[0]!=0;
+        r.isBounty = array_r[1]!=0;
+        return null;
+    }
+
+    @Specialization
+    public Object sync(VirtualFrame frame, long[] array_r) {
+        ComputationResult r = CoverExecution.fromFrame(frame).getResult();
         if(r==null) return null;
 
-        CoverReference ref_r = getScope().findReference("r");
-        if (ref_r == null) return null;
-        FrameSlot frameSlot_r = ref_r.getFrameSlot();
-        long[] obj = (long[]) getScope().getHeapObject(frameSlot_r);
-        r.isPow = obj[0]!=0;
-        r.isBounty = obj[1]!=0;
+        r.isPow = array_r[0]!=0;
+        r.isBounty = array_r[1]!=0;
         return null;
     }
 
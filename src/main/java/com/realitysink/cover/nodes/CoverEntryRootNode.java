@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.realitysink.cover.CoverLanguage;
+import com.realitysink.cover.runtime.CoverBudgetExhaustedException;
+import com.realitysink.cover.runtime.CoverCancelledException;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverMemoryLimitExceededException;
+import com.realitysink.cover.runtime.CoverProgram;
+import com.realitysink.cover.runtime.CoverProgramInstance;
+import com.realitysink.cover.runtime.SLNull;
+
+/**
+ * The call target returned by {@link CoverLanguage#parse}. It looks up the {@link CoverExecution
+ * executions} of the current engine, leases an instance of the program and calls its
+ * <code>main_proxy</code> (after initializing the globals) once for every execution, back to
+ * back on the same call target. The value returned is the one of the last execution.
+ */
+@NodeInfo(language = "Cover", description = "The entry point of a Cover program")
+public final class CoverEntryRootNode extends RootNode {
+    @Child private Node findContextNode = CoverLanguage.INSTANCE.createFindContextNode0();
+    @Child private IndirectCallNode callNode = IndirectCallNode.create();
+
+    private final CoverProgram program;
+
+    public CoverEntryRootNode(CoverProgram program) {
+        super(CoverLanguage.class, null, null);
+        this.program = program;
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        CoverExecution[] executions = CoverLanguage.INSTANCE.findContext0(findContextNode).getExecutions();
+        CoverProgramInstance instance = program.acquire();
+        try {
+            Object result = SLNull.SINGLETON;
+            for (CoverExecution execution : executions) {
+                if (execution.isCancelled()) {
+                    execution.setCancelled();
+                    continue;
+                }
+                instance.reset();
+                execution.setArena(instance.getArena());
+                execution.setMemory(instance.getMemory());
+                execution.setMemoryAccount(instance.getMemoryAccount());
+                execution.bind(instance);
+                try {
+                    instance.getMemoryAccount().start(execution.getMemoryLimit());
+                    if (instance.getGlobalInitializer() != null) {
+                        callNode.call(frame, instance.getGlobalInitializer(), new Object[]{execution});
+                    }
+                    result = callNode.call(frame, instance.getMainProxy(), new Object[]{execution});
+                    execution.setReturnValue(result);
+                } catch (CoverBudgetExhaustedException ex) {
+                    execution.setBudgetExhausted();
+                    result = SLNull.SINGLETON;
+                } catch (CoverCancelledException ex) {
+                    execution.setCancelled();
+                    result = SLNull.SINGLETON;
+                } catch (CoverMemoryLimitExceededException ex) {
+                    execution.setMemoryLimitExceeded();
+                    result = SLNull.SINGLETON;
+                }
+                execution.publishStorageChanges();
+                execution.publishPeakBytes();
+            }
+            return result;
+        } finally {
+            program.release(instance);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "entry " + program.getKey();
+    }
+}
@@ -17,6 +17,7 @@
 package com.realitysink.cover.nodes;
 
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.realitysink.cover.runtime.CoverGlobal;
 import com.realitysink.cover.runtime.SLFunction;
 
 public class CoverReference {
@@ -25,11 +26,15 @@ public class CoverReference {
     // only one of these is non-null
     private SLFunction function;
     private FrameSlot frameSlot;
+    private CoverGlobal global;
     private Object javaObject;
     
     // If this is an array, this indicates the index in it 
     private Integer arrayIndex;
     
+    // For a small local array replaced by scalars: the variable of every element
+    private CoverReference[] elements;
+    
     public CoverReference(CoverType type) {
         this.type = type;
     }
@@ -62,6 +67,16 @@ public class CoverReference {
         this.javaObject = javaObject;
         return this;
     }
+    public boolean isGlobal() {
+        return global != null;
+    }
+    public CoverGlobal getGlobal() {
+        return global;
+    }
+    public CoverReference setGlobal(CoverGlobal global) {
+        this.global = global;
+        return this;
+    }
     public Integer getArrayIndex() {
         return arrayIndex;
     }
@@ -69,4 +84,11 @@ public class CoverReference {
         this.arrayIndex = arrayIndex;
         return this;
     }
+    public CoverReference[] getElements() {
+        return elements;
+    }
+    public CoverReference setElements(CoverReference[] elements) {
+        this.elements = elements;
+        return this;
+    }
 }
@@ -18,10 +18,10 @@ package com.realitysink.cover.nodes;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.realitysink.cover.SingletonGlobalMaterializedFrame;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -29,6 +29,7 @@ import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.realitysink.cover.nodes.CoverType.BasicType;
 import com.realitysink.cover.parser.CoverParseException;
+import com.realitysink.cover.runtime.CoverGlobalStorage;
 import com.realitysink.cover.runtime.SLFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTSimpleDeclaration;
 
@@ -38,15 +39,61 @@ public class CoverScope {
     private Map<String,CoverType> types = new HashMap<>();
     private CoverScope parent;
     private Map<FrameSlot,Object> arrays_heap = new HashMap<>();
+    private List<Object> allHeapObjects = new ArrayList<>();
+    private Map<Object,Object> arrayTemplates = new IdentityHashMap<>();
+    private CoverGlobalStorage globalStorage;
 
-
+    /**
+     * Creates a block scope, which stores its variables in the frame of the enclosing function (or
+     * in the global storage, for the file scope).
+     */
     public CoverScope(CoverScope parent) {
         this.parent = parent;
         if (parent != null) {
             this.frameDescriptor = parent.frameDescriptor;
+            this.allHeapObjects = parent.allHeapObjects;
+            this.arrayTemplates = parent.arrayTemplates;
+        }
+    }
+
+    /**
+     * Creates a function scope with its own frame descriptor, so a call only allocates a frame for
+     * the variables of the function itself.
+     */
+    public CoverScope(CoverScope parent, FrameDescriptor frameDescriptor) {
+        this.parent = parent;
+        this.frameDescriptor = frameDescriptor;
+        this.allHeapObjects = parent.allHeapObjects;
+        this.arrayTemplates = parent.arrayTemplates;
+    }
+
+    private CoverScope getFileScope() {
+        return parent == null ? this : parent.getFileScope();
+    }
+
+    /**
+     * True if variables defined in this scope are global, i.e. live in the
+     * {@link #getGlobalStorage() global storage}.
+     */
+    public boolean isGlobal() {
+        return frameDescriptor == getFileScope().frameDescriptor;
+    }
+
+    /**
+     * The storage holding the global variables of this program instance.
+     */
+    public CoverGlobalStorage getGlobalStorage() {
+        CoverScope fileScope = getFileScope();
+        if (fileScope.globalStorage == null) {
+            fileScope.globalStorage = new CoverGlobalStorage();
         }
+        return fileScope.globalStorage;
     }
 
+    /**
+     * The array allocated for a frame slot. Only used while parsing: array reads are bound to the
+     * array when they are created.
+     */
     public Object getHeapObject(FrameSlot sl){
         Object ret = arrays_heap.get(sl);
         if(ret==null && parent != null)
@@ -56,9 +103,33 @@ public class CoverScope {
     }
 
     public Object setHeapObject(FrameSlot sl, Object obj){
+        allHeapObjects.add(obj);
         return arrays_heap.put(sl, obj);
     }
 
+    /**
+     * All heap objects allocated in this scope and every scope that shares its frame descriptor,
+     * so a cached program can be reset before it is run again.
+     */
+    public List<Object> getAllHeapObjects() {
+        return allHeapObjects;
+    }
+
+    /**
+     * Records the contents a heap object must have at the start of every run, the values of its
+     * initializer list. An array that is never written is its own template.
+     */
+    public void setArrayTemplate(Object heapObject, Object template) {
+        arrayTemplates.put(heapObject, template);
+    }
+
+    /**
+     * The contents of a heap object at the start of every run, or null if it starts out zeroed.
+     */
+    public Object getArrayTemplate(Object heapObject) {
+        return arrayTemplates.get(heapObject);
+    }
+
     public FrameDescriptor getFrameDescriptor() {
         return frameDescriptor;
     }
@@ -78,7 +149,10 @@ public class CoverScope {
             throw new CoverParseException(node, "identifier " + identifier + " already exists in this scope");
         }
         CoverReference ref = new CoverReference(type); 
-        if (type.getBasicType() != BasicType.FUNCTION) {
+        if (type.getBasicType() != BasicType.FUNCTION && type.getBasicType() != BasicType.ARRAY && isGlobal()) {
+            // global scalars and objects get a fixed location in the global storage
+            ref.setGlobal(getGlobalStorage().allocate(identifier, type.getFrameSlotKind(node)));
+        } else if (type.getBasicType() != BasicType.FUNCTION) {
             // function references don't use frameslots, they use the SLFunction object itself
             FrameSlot slot = frameDescriptor.addFrameSlot(new Object());
             FrameSlotKind frameSlotKind = type.getFrameSlotKind(node);
@@ -86,7 +160,6 @@ public class CoverScope {
             //System.err.println("added " + slot);
             ref.setFrameSlot(slot);
 
-
         }
         definitions.put(identifier, ref);
         //System.err.println("defined " + identifier + " as " + type.getBasicType());
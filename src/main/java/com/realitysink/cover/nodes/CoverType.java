@@ -46,6 +46,7 @@ public class CoverType {
         FUNCTION,
         OBJECT,
         JAVA_OBJECT,
+        POINTER,
         VOID
     }
     
@@ -62,7 +63,7 @@ public class CoverType {
     public static final CoverType ARRAY = new CoverType(BasicType.ARRAY);
     public static final CoverType OBJECT = new CoverType(BasicType.OBJECT);
     
-    private BasicType basicType;
+    private final BasicType basicType;
     
     private CoverType[] functionArguments;
     private CoverType functionReturn;
@@ -73,11 +74,28 @@ public class CoverType {
     private Map<String, CoverType> objectMembers = new HashMap<String, CoverType>();
     private Shape shape;
     
+    /*
+     * The type of the elements of an array, or of what a pointer points to.
+     */
     private CoverType arrayType;
+
+    /*
+     * For multi-dimensional arrays, the sizes of all dimensions but the first. The elements are
+     * stored in one flat array, row after row.
+     */
+    private int[] arrayDimensions = new int[0];
     
     public CoverType(BasicType basicType) {
         this.basicType = basicType;
     }
+
+    /**
+     * The type of a pointer into the linear memory of the program, pointing to a value of the given
+     * type.
+     */
+    public static CoverType pointerTo(CoverType pointeeType) {
+        return new CoverType(BasicType.POINTER).setArrayType(pointeeType);
+    }
     
     public CoverType[] getFunctionArguments() {
         return functionArguments;
@@ -120,6 +138,7 @@ public class CoverType {
         case ARRAY: return FrameSlotKind.Object;
         case JAVA_OBJECT: return FrameSlotKind.Object;
         case ARRAY_ELEMENT: return arrayType.getFrameSlotKind(node);
+        case POINTER: return FrameSlotKind.Long;
         default:   throw new CoverParseException(node, "unsupported reference for frameslotkind: " + basicType.toString());
         }
     }
@@ -132,11 +151,43 @@ public class CoverType {
         return arrayType;
     }
 
+    public CoverType getPointeeType() {
+        return arrayType;
+    }
+
+    /**
+     * The number of bytes a value of this type takes in linear memory. Like GCC we give
+     * <code>void</code> a size of 1, so arithmetic on <code>void *</code> works on bytes.
+     */
+    public int getSize(IASTNode node) {
+        CompilerAsserts.neverPartOfCompilation();
+        switch (basicType) {
+        case SIGNED_LONG: return 8;
+        case UNSIGNED_LONG: return 8;
+        case SIGNED_INT: return 4;
+        case UNSIGNED_INT: return 4;
+        case DOUBLE: return 8;
+        case FLOAT: return 4;
+        case POINTER: return 8;
+        case VOID: return 1;
+        default:   throw new CoverParseException(node, "no size known for " + basicType.toString());
+        }
+    }
+
     public CoverType setArrayType(CoverType typeOfContents) {
         this.arrayType = typeOfContents;
         return this;
     }
 
+    public int[] getArrayDimensions() {
+        return arrayDimensions;
+    }
+
+    public CoverType setArrayDimensions(int[] arrayDimensions) {
+        this.arrayDimensions = arrayDimensions;
+        return this;
+    }
+
     public boolean isPrimitiveType(IASTNode node) {
         CompilerAsserts.neverPartOfCompilation();
         switch (basicType) {
@@ -152,6 +203,7 @@ public class CoverType {
         case JAVA_OBJECT: return false;
         case ARRAY: return false;
         case ARRAY_ELEMENT: return arrayType.isPrimitiveType(node);
+        case POINTER: return true;
         default:   throw new CoverParseException(node, "unsupported reference for isUnboxed: " + basicType.toString());
         }
     }
@@ -177,6 +229,12 @@ public class CoverType {
         if (basicType == BasicType.ARRAY_ELEMENT && getTypeOfArrayContents().canAccept(type)) {
             return true;
         }
+
+        // a pointer can be set from an address computed as an integer (or the constant 0)
+        if (basicType == BasicType.POINTER && (type.getBasicType() == BasicType.SIGNED_LONG || type.getBasicType() == BasicType.UNSIGNED_LONG
+                || type.getBasicType() == BasicType.SIGNED_INT || type.getBasicType() == BasicType.UNSIGNED_INT)) {
+            return true;
+        }
         return false;
     }
 
@@ -209,6 +267,7 @@ public class CoverType {
         int result = 1;
         result = prime * result + ((arrayType == null) ? 0 : arrayType.hashCode());
         result = prime * result + ((basicType == null) ? 0 : basicType.hashCode());
+        result = prime * result + Arrays.hashCode(arrayDimensions);
         result = prime * result + Arrays.hashCode(functionArguments);
         result = prime * result + ((functionReturn == null) ? 0 : functionReturn.hashCode());
         result = prime * result + ((objectMembers == null) ? 0 : objectMembers.hashCode());
@@ -232,6 +291,8 @@ public class CoverType {
             return false;
         if (basicType != other.basicType)
             return false;
+        if (!Arrays.equals(arrayDimensions, other.arrayDimensions))
+            return false;
         if (!Arrays.equals(functionArguments, other.functionArguments))
             return false;
         if (functionReturn == null) {
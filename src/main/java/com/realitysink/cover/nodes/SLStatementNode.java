@@ -61,6 +61,15 @@ import com.realitysink.cover.nodes.SLStatementNodeWrapper;
 @Instrumentable(factory = SLStatementNodeWrapper.class)
 public abstract class SLStatementNode extends Node {
 
+    /** {@link #runWithStatus Status} of a statement that completed normally. */
+    public static final int NORMAL = 0;
+    /** {@link #runWithStatus Status} of a statement that executed a <code>break</code>. */
+    public static final int BREAK = 1;
+    /** {@link #runWithStatus Status} of a statement that executed a <code>continue</code>. */
+    public static final int CONTINUE = 2;
+    /** {@link #runWithStatus Status} of a statement that executed a <code>return</code>. */
+    public static final int RETURN = 3;
+
     private SourceSection sourceSection;
 
     private boolean hasStatementTag;
@@ -81,6 +90,19 @@ public abstract class SLStatementNode extends Node {
      */
     public abstract void executeVoid(VirtualFrame frame);
 
+    /**
+     * Execute this node as a statement and report how it completed: {@link #NORMAL normally}, or
+     * with a {@link #BREAK break}, {@link #CONTINUE continue} or {@link #RETURN return} that the
+     * enclosing loop or function body has to act on. Blocks, conditionals and the jump statements
+     * themselves pass the status up instead of throwing an exception. Statements that cannot
+     * contain a jump keep this default. The name does not start with <code>execute</code>, so the
+     * DSL does not take it for an execute method of the expression nodes.
+     */
+    public int runWithStatus(VirtualFrame frame) {
+        executeVoid(frame);
+        return NORMAL;
+    }
+
     /**
      * Marks this node as being a {@link StandardTags.StatementTag} for instrumentation purposes.
      */
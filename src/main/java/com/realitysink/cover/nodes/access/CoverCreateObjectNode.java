@@ -3,17 +3,23 @@ package com.realitysink.cover.nodes.access;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
 
 public class CoverCreateObjectNode extends CoverTypedExpressionNode {
 
     private CoverType type;
+    /* an estimate: an object header and a slot for every member */
+    private final long size;
     
     public CoverCreateObjectNode(CoverType type) {
         this.type = type;
+        this.size = 16 + 8 * type.getObjectMembers().size();
     }
 
     @Override
     public Object executeGeneric(VirtualFrame frame) {
+        // objects are left to the garbage collector, they count until the execution ends
+        CoverExecution.fromFrame(frame).getMemoryAccount().allocate(size);
         return type.getShape().newInstance();
     }
 
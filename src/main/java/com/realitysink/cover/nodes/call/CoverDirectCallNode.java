@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.call;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.nodes.SLExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.SLFunction;
+
+/**
+ * A call to a function named in the source. C functions cannot be redefined, so the target is known
+ * while parsing and the call goes straight to a {@link DirectCallNode}, without the inline cache
+ * and the call target assumption of {@link SLDispatchNode}. The parser {@link #bind() binds} the
+ * call after the whole translation unit is parsed, when every function, including the ones called
+ * before their definition, has its call target.
+ */
+@NodeInfo(shortName = "call")
+public final class CoverDirectCallNode extends CoverTypedExpressionNode {
+
+    private final SLFunction function;
+    @Children private final SLExpressionNode[] argumentNodes;
+    @Child private DirectCallNode callNode;
+    private final CoverType returnType;
+
+    public CoverDirectCallNode(SLFunction function, SLExpressionNode[] argumentNodes, CoverType returnType) {
+        this.function = function;
+        this.argumentNodes = argumentNodes;
+        this.returnType = returnType;
+    }
+
+    public SLFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * Creates the call node for the call target the function has now.
+     */
+    public void bind() {
+        CompilerAsserts.neverPartOfCompilation();
+        callNode = insert(DirectCallNode.create(function.getCallTarget()));
+    }
+
+    @ExplodeLoop
+    @Override
+    public Object executeGeneric(VirtualFrame frame) {
+        CompilerAsserts.compilationConstant(argumentNodes.length);
+
+        Object[] argumentValues = new Object[argumentNodes.length + 1];
+        argumentValues[CoverExecution.ARGUMENT_INDEX] = CoverExecution.fromFrame(frame);
+        for (int i = 0; i < argumentNodes.length; i++) {
+            argumentValues[i + 1] = argumentNodes[i].executeGeneric(frame);
+        }
+        return callNode.call(frame, argumentValues);
+    }
+
+    @Override
+    protected boolean isTaggedWith(Class<?> tag) {
+        if (tag == StandardTags.CallTag.class) {
+            return true;
+        }
+        return super.isTaggedWith(tag);
+    }
+
+    @Override
+    public CoverType getType() {
+        return returnType;
+    }
+}
@@ -49,14 +49,20 @@ import com.realitysink.cover.nodes.call.SLDispatchNodeGen;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 import com.realitysink.cover.nodes.SLExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
 import com.realitysink.cover.runtime.SLFunction;
 
 /**
  * The node for function invocation in SL. Since SL has first class functions, the {@link SLFunction
  * target function} can be computed by an arbitrary expression. This node is responsible for
- * evaluating this expression, as well as evaluating the {@link #argumentNodes arguments}. The
+ * evaluating this expression, as well as evaluating the {@link #argumentNodes arguments}, which are
+ * passed after the {@link CoverExecution} of the caller. The
  * actual dispatch is then delegated to a chain of {@link SLDispatchNode} that form a polymorphic
  * inline cache.
+ * <p>
+ * For a call to a Cover function with a known signature, the parser converts every argument to the
+ * type of its parameter, so the callee can read it with an exact cast, and the type of the call is
+ * the declared return type of the function.
  */
 @NodeInfo(shortName = "invoke")
 public final class SLInvokeNode extends CoverTypedExpressionNode {
@@ -64,11 +70,17 @@ public final class SLInvokeNode extends CoverTypedExpressionNode {
     @Child private SLExpressionNode functionNode;
     @Children private final SLExpressionNode[] argumentNodes;
     @Child private SLDispatchNode dispatchNode;
+    private final CoverType returnType;
 
     public SLInvokeNode(SLExpressionNode functionNode, SLExpressionNode[] argumentNodes) {
+        this(functionNode, argumentNodes, CoverType.UNSIGNED_LONG);
+    }
+
+    public SLInvokeNode(SLExpressionNode functionNode, SLExpressionNode[] argumentNodes, CoverType returnType) {
         this.functionNode = functionNode;
         this.argumentNodes = argumentNodes;
         this.dispatchNode = SLDispatchNodeGen.create();
+        this.returnType = returnType;
     }
 
     @ExplodeLoop
@@ -84,9 +96,10 @@ public final class SLInvokeNode extends CoverTypedExpressionNode {
          */
         CompilerAsserts.compilationConstant(argumentNodes.length);
 
-        Object[] argumentValues = new Object[argumentNodes.length];
+        Object[] argumentValues = new Object[argumentNodes.length + 1];
+        argumentValues[CoverExecution.ARGUMENT_INDEX] = CoverExecution.fromFrame(frame);
         for (int i = 0; i < argumentNodes.length; i++) {
-            argumentValues[i] = argumentNodes[i].executeGeneric(frame);
+            argumentValues[i + 1] = argumentNodes[i].executeGeneric(frame);
         }
         return dispatchNode.executeDispatch(frame, function, argumentValues);
     }
@@ -101,6 +114,6 @@ public final class SLInvokeNode extends CoverTypedExpressionNode {
 
     @Override
     public CoverType getType() {
-        return CoverType.UNSIGNED_LONG; // FIXME: should be the return type of the function!
+        return returnType;
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.controlflow;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.SLExpressionNode;
+import com.realitysink.cover.runtime.CoverArena;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverMemory;
+
+/**
+ * Wraps the body of a function that declares local arrays or calls <code>alloca</code>: the arrays
+ * allocated by an activation are released to the {@link CoverArena arena}, and its blocks on the
+ * stack of the {@link CoverMemory linear memory} are popped, when it returns, however it returns.
+ */
+@NodeInfo(shortName = "arena")
+public final class CoverArenaScopeNode extends SLExpressionNode {
+    @Child private SLExpressionNode bodyNode;
+
+    public CoverArenaScopeNode(SLExpressionNode bodyNode) {
+        this.bodyNode = bodyNode;
+    }
+
+    @Override
+    public Object executeGeneric(VirtualFrame frame) {
+        CoverExecution execution = CoverExecution.fromFrame(frame);
+        CoverArena arena = execution.getArena();
+        CoverMemory memory = execution.getMemory();
+        int mark = arena.mark();
+        long stackMark = memory == null ? 0 : memory.getStackPointer();
+        try {
+            return bodyNode.executeGeneric(frame);
+        } finally {
+            arena.release(mark);
+            if (memory != null) {
+                memory.releaseStack(stackMark);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.controlflow;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverArena;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Wraps a block that declares local arrays: the arrays are released to the {@link CoverArena
+ * arena} when the block is left, so an array declared in the body of a loop reuses the same buffer
+ * in every iteration instead of piling up until the function returns.
+ */
+@NodeInfo(shortName = "block arena")
+public final class CoverBlockArenaScopeNode extends SLStatementNode {
+    @Child private SLStatementNode blockNode;
+
+    public CoverBlockArenaScopeNode(SLStatementNode blockNode) {
+        this.blockNode = blockNode;
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        CoverArena arena = CoverExecution.fromFrame(frame).getArena();
+        int mark = arena.mark();
+        try {
+            blockNode.executeVoid(frame);
+        } finally {
+            arena.release(mark);
+        }
+    }
+
+    @Override
+    public int runWithStatus(VirtualFrame frame) {
+        CoverArena arena = CoverExecution.fromFrame(frame).getArena();
+        int mark = arena.mark();
+        try {
+            return blockNode.runWithStatus(frame);
+        } finally {
+            arena.release(mark);
+        }
+    }
+}
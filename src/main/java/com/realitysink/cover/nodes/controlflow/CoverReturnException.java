@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.controlflow;
+
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+/**
+ * Thrown by a {@link CoverReturnNode return statement} of a Cover function and caught by the
+ * {@link SLFunctionBodyNode function body}. The return value is left in a frame slot of the
+ * function, so the exception is stateless and a {@link #SINGLETON} is used.
+ */
+public final class CoverReturnException extends ControlFlowException {
+
+    public static final CoverReturnException SINGLETON = new CoverReturnException();
+
+    private static final long serialVersionUID = 5482671953860119470L;
+
+    /* Prevent instantiation from outside. */
+    private CoverReturnException() {
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.controlflow;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.SLExpressionNode;
+import com.realitysink.cover.nodes.SLStatementNode;
+
+/**
+ * A return statement in a Cover function. The value, already converted to the declared return type,
+ * is written to the typed return slot of the function, after which the preallocated
+ * {@link CoverReturnException} unwinds to the {@link SLFunctionBodyNode function body}. Unlike
+ * {@link SLReturnNode}, returning allocates neither an exception nor a box for the value.
+ * <p>
+ * Executed {@link #runWithStatus for its status}, which is how blocks and conditionals run it, it
+ * reports {@link #RETURN} instead of throwing.
+ */
+@NodeInfo(shortName = "return", description = "The node implementing a return statement")
+public final class CoverReturnNode extends SLStatementNode {
+
+    /**
+     * Writes the value to the return slot, or only evaluates it in a function returning
+     * <code>void</code>; null for a return without a value.
+     */
+    @Child private SLExpressionNode writeResultNode;
+
+    public CoverReturnNode(SLExpressionNode writeResultNode) {
+        this.writeResultNode = writeResultNode;
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        if (writeResultNode != null) {
+            writeResultNode.executeVoid(frame);
+        }
+        throw CoverReturnException.SINGLETON;
+    }
+
+    @Override
+    public int runWithStatus(VirtualFrame frame) {
+        if (writeResultNode != null) {
+            writeResultNode.executeVoid(frame);
+        }
+        return RETURN;
+    }
+}
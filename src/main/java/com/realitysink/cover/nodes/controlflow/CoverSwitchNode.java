@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.controlflow;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.nodes.SLStatementNode;
+
+/**
+ * A <code>switch</code> statement. The body is split into segments, each starting at a case
+ * label. The value selects the first segment to run, and execution falls through into the
+ * following segments until one of them does not complete normally. A <code>break</code> ends the
+ * switch; <code>continue</code> and <code>return</code> are passed on to the enclosing loop or
+ * function.
+ * <p>
+ * The case values are constants, so the segment is looked up instead of comparing the value with
+ * every case: in a table indexed by the value when the cases are dense, otherwise with a binary
+ * search over the sorted case values.
+ * <p>
+ * The segments are then run by an ordinary loop from the selected one on, so no segment before it
+ * is looked at, however many cases the switch has.
+ */
+@NodeInfo(shortName = "switch", description = "The node implementing a switch statement")
+public final class CoverSwitchNode extends SLStatementNode {
+    /** The cases fill at least this fraction of the range between the lowest and highest one. */
+    private static final int MIN_TABLE_DENSITY_PERCENT = 50;
+
+    @Child private CoverTypedExpressionNode valueNode;
+    @Children private final SLStatementNode[] segmentNodes;
+
+    /** The case values in ascending order, and the segment of each. */
+    private final long[] keys;
+    private final int[] targets;
+    /** The segment of <code>default</code>, or the number of segments if there is none. */
+    private final int defaultTarget;
+
+    /** Segment for each value from <code>tableOffset</code>, null when the cases are sparse. */
+    private final int[] table;
+    private final long tableOffset;
+
+    private final BranchProfile breakTaken = BranchProfile.create();
+
+    /**
+     * @param keys the case values, without duplicates
+     * @param targets for every case value the index of its segment
+     * @param defaultTarget the segment of <code>default</code>, or <code>segmentNodes.length</code>
+     */
+    public CoverSwitchNode(CoverTypedExpressionNode valueNode, long[] keys, int[] targets, int defaultTarget, SLStatementNode[] segmentNodes) {
+        this.valueNode = valueNode;
+        this.segmentNodes = segmentNodes;
+        this.defaultTarget = defaultTarget;
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+        this.keys = new long[keys.length];
+        this.targets = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            this.keys[i] = keys[order[i]];
+            this.targets[i] = targets[order[i]];
+        }
+        if (isDense(this.keys)) {
+            tableOffset = this.keys[0];
+            table = new int[(int) (this.keys[keys.length - 1] - tableOffset + 1)];
+            Arrays.fill(table, defaultTarget);
+            for (int i = 0; i < keys.length; i++) {
+                table[(int) (this.keys[i] - tableOffset)] = this.targets[i];
+            }
+        } else {
+            tableOffset = 0;
+            table = null;
+        }
+    }
+
+    private static boolean isDense(long[] sortedKeys) {
+        if (sortedKeys.length == 0) {
+            return false;
+        }
+        long range = sortedKeys[sortedKeys.length - 1] - sortedKeys[0] + 1;
+        return range > 0 && range <= Integer.MAX_VALUE && range * MIN_TABLE_DENSITY_PERCENT <= sortedKeys.length * 100L;
+    }
+
+    /** True if the cases are looked up in a table, false for a binary search. */
+    public boolean isTableDispatch() {
+        return table != null;
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        int status = runWithStatus(frame);
+        if (status == CONTINUE) {
+            throw SLContinueException.SINGLETON;
+        } else if (status == RETURN) {
+            /* the value is already in the return slot */
+            throw CoverReturnException.SINGLETON;
+        }
+    }
+
+    /**
+     * Runs the segments from the selected one on, falling through until one of them does not
+     * complete normally.
+     */
+    @Override
+    public int runWithStatus(VirtualFrame frame) {
+        for (int i = dispatch(evaluateValue(frame)); i < segmentNodes.length; i++) {
+            int status;
+            try {
+                status = segmentNodes[i].runWithStatus(frame);
+            } catch (SLBreakException ex) {
+                status = BREAK;
+            }
+            if (status == BREAK) {
+                breakTaken.enter();
+                return NORMAL;
+            } else if (status != NORMAL) {
+                return status;
+            }
+        }
+        return NORMAL;
+    }
+
+    /**
+     * The index of the first segment to run for a value.
+     */
+    private int dispatch(long value) {
+        if (table != null) {
+            long index = value - tableOffset;
+            if (index >= 0 && index < table.length) {
+                return table[(int) index];
+            }
+            return defaultTarget;
+        }
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long key = keys[middle];
+            if (key < value) {
+                low = middle + 1;
+            } else if (key > value) {
+                high = middle - 1;
+            } else {
+                return targets[middle];
+            }
+        }
+        return defaultTarget;
+    }
+
+    private long evaluateValue(VirtualFrame frame) {
+        try {
+            return valueNode.executeLong(frame);
+        } catch (UnexpectedResultException ex) {
+            throw new UnsupportedSpecializationException(this, new Node[]{valueNode}, ex.getResult());
+        }
+    }
+}
@@ -49,6 +49,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverExecution;
 
 /**
  * A statement node that just executes a list of other statements.
@@ -80,11 +81,31 @@ public final class SLBlockNode extends SLStatementNode {
          */
         CompilerAsserts.compilationConstant(bodyNodes.length);
 
+        CoverExecution.charge(frame, bodyNodes.length);
         for (SLStatementNode statement : bodyNodes) {
             statement.executeVoid(frame);
         }
     }
 
+    /**
+     * Like {@link #executeVoid}, but stops at the first statement that does not complete normally
+     * and returns its status.
+     */
+    @Override
+    @ExplodeLoop
+    public int runWithStatus(VirtualFrame frame) {
+        CompilerAsserts.compilationConstant(bodyNodes.length);
+
+        CoverExecution.charge(frame, bodyNodes.length);
+        for (SLStatementNode statement : bodyNodes) {
+            int status = statement.runWithStatus(frame);
+            if (status != NORMAL) {
+                return status;
+            }
+        }
+        return NORMAL;
+    }
+
     public List<SLStatementNode> getStatements() {
         return Collections.unmodifiableList(Arrays.asList(bodyNodes));
     }
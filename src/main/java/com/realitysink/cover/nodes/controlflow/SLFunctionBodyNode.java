@@ -47,6 +47,7 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.realitysink.cover.nodes.SLExpressionNode;
 import com.realitysink.cover.nodes.SLRootNode;
 import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverExecution;
 import com.realitysink.cover.runtime.SLNull;
 
 /**
@@ -55,12 +56,20 @@ import com.realitysink.cover.runtime.SLNull;
  * statement} throws an {@link SLReturnException exception} with the return value. This node catches
  * the exception. If the method ends without an explicit {@code return}, return the
  * {@link SLNull#SINGLETON default null value}.
+ * <p>
+ * The {@link CoverReturnNode return statements} of Cover functions leave the value in a typed
+ * frame slot instead. They report a {@link SLStatementNode#RETURN} status through the blocks and
+ * conditionals around them; only a return from inside a loop throws the preallocated
+ * {@link CoverReturnException}. Either way this node then reads the slot.
  */
 @NodeInfo(shortName = "body")
 public final class SLFunctionBodyNode extends SLExpressionNode {
 
     /** The body of the function. */
     @Child private SLStatementNode bodyNode;
+
+    /** Reads the value left by a {@link CoverReturnNode}, null if there is none. */
+    @Child private SLExpressionNode returnValueNode;
     
     /**
      * Profiling information, collected by the interpreter, capturing whether the function had an
@@ -69,22 +78,33 @@ public final class SLFunctionBodyNode extends SLExpressionNode {
      */
     private final BranchProfile exceptionTaken = BranchProfile.create();
     private final BranchProfile nullTaken = BranchProfile.create();
+    private final BranchProfile statusReturnTaken = BranchProfile.create();
 
     public SLStatementNode getBodyNode() {
         return bodyNode;
     }
 
     public SLFunctionBodyNode(SLStatementNode bodyNode) {
+        this(bodyNode, null);
+    }
+
+    public SLFunctionBodyNode(SLStatementNode bodyNode, SLExpressionNode returnValueNode) {
         this.bodyNode = bodyNode;
+        this.returnValueNode = returnValueNode;
         addRootTag();
     }
 
     @ExplodeLoop
     @Override
     public Object executeGeneric(VirtualFrame frame) {
+        CoverExecution.charge(frame, 1);
+        CoverExecution.poll(frame);
         try {
-            /* Execute the function body. */
-            bodyNode.executeVoid(frame);
+            /* Execute the function body, a return in it reports its status. */
+            if (bodyNode.runWithStatus(frame) == RETURN) {
+                statusReturnTaken.enter();
+                return returnValueNode == null ? SLNull.SINGLETON : returnValueNode.executeGeneric(frame);
+            }
 
         } catch (SLReturnException ex) {
             /*
@@ -94,6 +114,9 @@ public final class SLFunctionBodyNode extends SLExpressionNode {
             exceptionTaken.enter();
             /* The exception transports the actual return value. */
             return ex.getResult();
+        } catch (CoverReturnException ex) {
+            exceptionTaken.enter();
+            return returnValueNode == null ? SLNull.SINGLETON : returnValueNode.executeGeneric(frame);
         }
 
         /*
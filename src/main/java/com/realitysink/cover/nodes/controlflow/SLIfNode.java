@@ -97,6 +97,16 @@ public final class SLIfNode extends SLStatementNode {
         }
     }
 
+    @Override
+    public int runWithStatus(VirtualFrame frame) {
+        if (condition.profile(evaluateCondition(frame))) {
+            return thenPartNode.runWithStatus(frame);
+        } else if (elsePartNode != null) {
+            return elsePartNode.runWithStatus(frame);
+        }
+        return NORMAL;
+    }
+
     private boolean evaluateCondition(VirtualFrame frame) {
         try {
             /*
@@ -41,6 +41,8 @@
 package com.realitysink.cover.nodes.controlflow;
 
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameUtil;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.LoopNode;
 import com.oracle.truffle.api.nodes.NodeInfo;
@@ -53,8 +55,31 @@ public final class SLWhileNode extends SLStatementNode {
 
     @Child private LoopNode loopNode;
 
+    /** Set by the loop body when it returns, null if the body has no return. */
+    private final FrameSlot returnedSlot;
+
     public SLWhileNode(SLExpressionNode conditionNode, SLStatementNode bodyNode) {
-        this.loopNode = Truffle.getRuntime().createLoopNode(new SLWhileRepeatingNode(conditionNode, bodyNode));
+        this(conditionNode, bodyNode, null, false);
+    }
+
+    /**
+     * A loop with an iteration statement, run after the body and after a <code>continue</code>,
+     * like the third part of a <code>for</code>. With <code>conditionLast</code> the condition is
+     * tested after the body, as in <code>do {} while ()</code>.
+     */
+    public SLWhileNode(SLExpressionNode conditionNode, SLStatementNode bodyNode, SLStatementNode iterationNode, boolean conditionLast) {
+        this(conditionNode, bodyNode, iterationNode, conditionLast, null);
+    }
+
+    /**
+     * A loop whose body can return. The {@link LoopNode} cannot pass a status on, so the body
+     * leaves the loop and sets <code>returnedSlot</code>, a boolean slot of the function, and the
+     * loop then reports {@link #RETURN} instead of throwing a {@link CoverReturnException}.
+     */
+    public SLWhileNode(SLExpressionNode conditionNode, SLStatementNode bodyNode, SLStatementNode iterationNode, boolean conditionLast,
+                    FrameSlot returnedSlot) {
+        this.loopNode = Truffle.getRuntime().createLoopNode(new SLWhileRepeatingNode(conditionNode, bodyNode, iterationNode, conditionLast, returnedSlot));
+        this.returnedSlot = returnedSlot;
     }
 
     @Override
@@ -66,7 +91,27 @@ public final class SLWhileNode extends SLStatementNode {
 
     @Override
     public void executeVoid(VirtualFrame frame) {
+        if (runLoop(frame)) {
+            throw CoverReturnException.SINGLETON;
+        }
+    }
+
+    @Override
+    public int runWithStatus(VirtualFrame frame) {
+        return runLoop(frame) ? RETURN : NORMAL;
+    }
+
+    /**
+     * Runs the loop, true if its body returned.
+     */
+    private boolean runLoop(VirtualFrame frame) {
+        if (returnedSlot == null) {
+            loopNode.executeLoop(frame);
+            return false;
+        }
+        frame.setBoolean(returnedSlot, false);
         loopNode.executeLoop(frame);
+        return FrameUtil.getBooleanSafe(frame, returnedSlot);
     }
 
 }
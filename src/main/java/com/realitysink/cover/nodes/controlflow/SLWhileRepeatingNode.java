@@ -41,6 +41,7 @@
 package com.realitysink.cover.nodes.controlflow;
 
 import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.LoopNode;
 import com.oracle.truffle.api.nodes.Node;
@@ -50,6 +51,7 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.source.SourceSection;
 import com.realitysink.cover.nodes.SLExpressionNode;
 import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverExecution;
 
 /**
  * The loop body of a {@link SLWhileNode while loop}. A Truffle framework {@link LoopNode} between
@@ -68,6 +70,15 @@ public final class SLWhileRepeatingNode extends Node implements RepeatingNode {
     /** Statement (or {@link SLBlockNode block}) executed as long as the condition is true. */
     @Child private SLStatementNode bodyNode;
 
+    /** Statement executed after the body, also after a {@code continue}; may be null. */
+    @Child private SLStatementNode iterationNode;
+
+    /** True for {@code do {} while ()}: the condition is tested after the body. */
+    private final boolean conditionLast;
+
+    /** Set when the body returns, see {@link SLWhileNode}; null if the body has no return. */
+    private final FrameSlot returnedSlot;
+
     /**
      * Profiling information, collected by the interpreter, capturing whether a {@code continue}
      * statement was used in this loop. This allows the compiler to generate better code for loops
@@ -75,6 +86,7 @@ public final class SLWhileRepeatingNode extends Node implements RepeatingNode {
      */
     private final BranchProfile continueTaken = BranchProfile.create();
     private final BranchProfile breakTaken = BranchProfile.create();
+    private final BranchProfile returnTaken = BranchProfile.create();
 
     /**
      * This node does not extend {@link SLStatementNode}, so we need to maintain source information
@@ -82,9 +94,13 @@ public final class SLWhileRepeatingNode extends Node implements RepeatingNode {
      */
     private SourceSection sourceSection;
 
-    public SLWhileRepeatingNode(SLExpressionNode conditionNode, SLStatementNode bodyNode) {
+    public SLWhileRepeatingNode(SLExpressionNode conditionNode, SLStatementNode bodyNode, SLStatementNode iterationNode,
+                    boolean conditionLast, FrameSlot returnedSlot) {
         this.conditionNode = conditionNode;
         this.bodyNode = bodyNode;
+        this.iterationNode = iterationNode;
+        this.conditionLast = conditionLast;
+        this.returnedSlot = returnedSlot;
     }
 
     @Override
@@ -99,29 +115,48 @@ public final class SLWhileRepeatingNode extends Node implements RepeatingNode {
 
     @Override
     public boolean executeRepeating(VirtualFrame frame) {
-        if (!evaluateCondition(frame)) {
+        CoverExecution.charge(frame, 1);
+        CoverExecution.poll(frame);
+        if (!conditionLast && !evaluateCondition(frame)) {
             /* Normal exit of the loop when loop condition is false. */
             return false;
         }
 
+        /*
+         * Execute the loop body. Jumps come back as a status; the exceptions are only thrown by
+         * statements that do not report one.
+         */
+        int status;
         try {
-            /* Execute the loop body. */
-            bodyNode.executeVoid(frame);
-            /* Continue with next loop iteration. */
-            return true;
-
+            status = bodyNode.runWithStatus(frame);
         } catch (SLContinueException ex) {
-            /* In the interpreter, record profiling information that the loop uses continue. */
-            continueTaken.enter();
-            /* Continue with next loop iteration. */
-            return true;
-
+            status = SLStatementNode.CONTINUE;
         } catch (SLBreakException ex) {
+            status = SLStatementNode.BREAK;
+        }
+
+        if (status == SLStatementNode.BREAK) {
             /* In the interpreter, record profiling information that the loop uses break. */
             breakTaken.enter();
             /* Break out of the loop. */
             return false;
+        } else if (status == SLStatementNode.RETURN) {
+            /* The loop node cannot pass a status on, leave it through the slot or unwind. */
+            returnTaken.enter();
+            if (returnedSlot == null) {
+                throw CoverReturnException.SINGLETON;
+            }
+            frame.setBoolean(returnedSlot, true);
+            return false;
+        } else if (status == SLStatementNode.CONTINUE) {
+            /* In the interpreter, record profiling information that the loop uses continue. */
+            continueTaken.enter();
+        }
+        if (iterationNode != null) {
+            iterationNode.executeVoid(frame);
         }
+        /* Continue with next loop iteration. */
+        return !conditionLast || evaluateCondition(frame);
     }
 
     private boolean evaluateCondition(VirtualFrame frame) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.expression;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverType.BasicType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+
+/**
+ * Converts a value to the declared type of a parameter or of a function result: a
+ * <code>double</code>, a <code>float</code> or, for integers and pointers, a <code>long</code>.
+ * Only inserted where the type of the value differs, the conversion itself is one of the implicit
+ * casts of the type system.
+ */
+@NodeChild("valueNode")
+@NodeField(name = "type", type = CoverType.class)
+public abstract class CoverConvertNode extends CoverTypedExpressionNode {
+
+    @Specialization(guards = "isDouble()")
+    protected double toDouble(double value) {
+        return value;
+    }
+
+    @Specialization(guards = "isFloat()")
+    protected float toFloat(float value) {
+        return value;
+    }
+
+    @Specialization(guards = {"!isDouble()", "!isFloat()"})
+    protected long toLong(long value) {
+        return value;
+    }
+
+    protected boolean isDouble() {
+        return getType().getBasicType() == BasicType.DOUBLE;
+    }
+
+    protected boolean isFloat() {
+        return getType().getBasicType() == BasicType.FLOAT;
+    }
+}
@@ -25,9 +25,20 @@ import com.realitysink.cover.runtime.SLFunction;
 @NodeInfo(shortName = "func")
 public final class CoverFunctionLiteralNode extends CoverTypedExpressionNode {
     private final SLFunction function;
+    /* the signature of the function, if it is known */
+    private final CoverType type;
     
     public CoverFunctionLiteralNode(SLFunction function) {
+        this(function, CoverType.FUNCTION);
+    }
+
+    public CoverFunctionLiteralNode(SLFunction function, CoverType type) {
         this.function = function;
+        this.type = type;
+    }
+
+    public SLFunction getFunction() {
+        return function;
     }
 
     @Override
@@ -37,6 +48,6 @@ public final class CoverFunctionLiteralNode extends CoverTypedExpressionNode {
 
     @Override
     public CoverType getType() {
-        return CoverType.FUNCTION;
+        return type;
     }
 }
@@ -40,56 +40,21 @@
  */
 package com.realitysink.cover.nodes.expression;
 
-import com.oracle.truffle.api.dsl.NodeChild;
-import com.oracle.truffle.api.dsl.NodeChildren;
-import com.oracle.truffle.api.dsl.ShortCircuit;
-import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 
 /**
- * This class declares specializations similar to the extensively documented {@link SLAddNode}. It
- * uses one additional feature of the Truffle DSL: {@link ShortCircuit}.
- * <p>
- * Logical operations in SL use short circuit evaluation: if the evaluation of the left operand
- * already decides the result of the operation, the right operand must not be executed. This is
- * expressed in the Truffle DSL via a method annotated with {@link ShortCircuit}, which returns
- * whether a child needs to be executed based on the result of already executed children.
+ * Logical and: the right operand is only evaluated when the left one is true.
  */
 @NodeInfo(shortName = "&&")
-@NodeChildren({@NodeChild("leftNode"), @NodeChild("rightNode")})
-public abstract class SLLogicalAndNode extends CoverTypedExpressionNode {
+public final class SLLogicalAndNode extends SLShortCircuitNode {
 
-//    /**
-//     * This method is called after the left child was evaluated, but before the right child is
-//     * evaluated. The right child is only evaluated when the return value is {code true}.
-//     */
-//    @ShortCircuit("rightNode")
-//    protected boolean needsRightNode(boolean left) {
-//        return left;
-//    }
-//
-//    /**
-//     * Similar to {@link #needsRightNode(boolean)}, but for generic cases where the type of the left
-//     * child is not known.
-//     */
-//    @ShortCircuit("rightNode")
-//    protected boolean needsRightNode(Object left) {
-//        return left instanceof Boolean && needsRightNode(((Boolean) left).booleanValue());
-//    }
-//
-//    @Specialization
-//    protected boolean doBoolean(boolean left, boolean hasRight, boolean right) {
-//        return left && right;
-//    }
-    
-    @Specialization
-    protected boolean doBoolean(boolean left, boolean right) { // FIXME: we evaluate them all!
-        return left && right;
+    public SLLogicalAndNode(CoverTypedExpressionNode leftNode, CoverTypedExpressionNode rightNode) {
+        super(leftNode, rightNode);
     }
+
     @Override
-    public CoverType getType() {
-        return CoverType.BOOLEAN;
+    protected boolean isEvaluateRight(boolean left) {
+        return left;
     }
 }
@@ -40,31 +40,21 @@
  */
 package com.realitysink.cover.nodes.expression;
 
-import com.oracle.truffle.api.dsl.ShortCircuit;
-import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import com.realitysink.cover.nodes.SLBinaryNode;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 
 /**
- * This class is similar to the {@link SLLogicalAndNode}.
+ * Logical or: the right operand is only evaluated when the left one is false.
  */
 @NodeInfo(shortName = "||")
-@SuppressWarnings("unused")
-public abstract class SLLogicalOrNode extends SLBinaryNode {
+public final class SLLogicalOrNode extends SLShortCircuitNode {
 
-    @ShortCircuit("rightNode")
-    protected boolean needsRightNode(boolean left) {
-        return !left;
-    }
-
-    @ShortCircuit("rightNode")
-    protected boolean needsRightNode(Object left) {
-        return left instanceof Boolean && needsRightNode(((Boolean) left).booleanValue());
+    public SLLogicalOrNode(CoverTypedExpressionNode leftNode, CoverTypedExpressionNode rightNode) {
+        super(leftNode, rightNode);
     }
 
-    @Specialization
-    protected boolean doBoolean(boolean left, boolean hasRight, boolean right) {
-        return left || right;
+    @Override
+    protected boolean isEvaluateRight(boolean left) {
+        return !left;
     }
 }
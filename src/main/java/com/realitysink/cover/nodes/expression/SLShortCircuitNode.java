@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.expression;
+
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+
+/**
+ * Base of the logical operators, which only evaluate the right operand when the left one does not
+ * decide the result. The operands must produce a boolean, so the parser wraps them in an
+ * {@link SLForceBooleanNode}.
+ */
+public abstract class SLShortCircuitNode extends CoverTypedExpressionNode {
+    @Child private CoverTypedExpressionNode leftNode;
+    @Child private CoverTypedExpressionNode rightNode;
+
+    /**
+     * How often the right operand is evaluated. A counting profile, so that the compiler also gets
+     * the probability of the branch, as for the condition of an if.
+     */
+    private final ConditionProfile evaluateRightProfile = ConditionProfile.createCountingProfile();
+
+    public SLShortCircuitNode(CoverTypedExpressionNode leftNode, CoverTypedExpressionNode rightNode) {
+        this.leftNode = leftNode;
+        this.rightNode = rightNode;
+    }
+
+    @Override
+    public Object executeGeneric(VirtualFrame frame) {
+        return executeBoolean(frame);
+    }
+
+    @Override
+    public boolean executeBoolean(VirtualFrame frame) {
+        boolean left = evaluate(frame, leftNode);
+        if (evaluateRightProfile.profile(isEvaluateRight(left))) {
+            return evaluate(frame, rightNode);
+        }
+        return left;
+    }
+
+    /**
+     * True if the result is not decided by the value of the left operand.
+     */
+    protected abstract boolean isEvaluateRight(boolean left);
+
+    private boolean evaluate(VirtualFrame frame, CoverTypedExpressionNode operand) {
+        try {
+            return operand.executeBoolean(frame);
+        } catch (UnexpectedResultException ex) {
+            throw new UnsupportedSpecializationException(this, new Node[]{operand}, ex.getResult());
+        }
+    }
+
+    @Override
+    public CoverType getType() {
+        return CoverType.BOOLEAN;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverRuntimeException;
+
+/**
+ * The position of <code>a[row][column]</code> in the flat array that holds a multi-dimensional
+ * array. The stride, the size of a row, is a constant, so for more dimensions these nodes are
+ * simply nested.
+ * <p>
+ * The column must be inside its row: checking only the flat index against the length of the array
+ * would let <code>a[0][stride]</code> read the next row. The row is checked against the length by
+ * the access of the element; here it only has to be small enough that the flat index does not
+ * overflow.
+ */
+@NodeChildren({@NodeChild("row"), @NodeChild("column")})
+@NodeField(name = "stride", type = long.class)
+@NodeInfo(shortName = "[][]")
+public abstract class CoverFlatIndexNode extends CoverTypedExpressionNode {
+
+    protected abstract long getStride();
+
+    @Specialization
+    protected long index(long row, long column) {
+        long stride = getStride();
+        if (column < 0 || column >= stride || row < 0 || row > Integer.MAX_VALUE / stride) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "index [" + row + "][" + column + "] out of bounds");
+        }
+        return row * stride + column;
+    }
+
+    @Override
+    public CoverType getType() {
+        return CoverType.SIGNED_LONG;
+    }
+}
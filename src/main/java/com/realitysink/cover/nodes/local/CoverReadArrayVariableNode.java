@@ -16,36 +16,24 @@
  */
 package com.realitysink.cover.nodes.local;
 
-import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
-import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.FrameSlot;
-import com.oracle.truffle.api.frame.FrameUtil;
-import com.oracle.truffle.api.frame.MaterializedFrame;
-import com.oracle.truffle.api.frame.VirtualFrame;
-import com.realitysink.cover.SingletonGlobalMaterializedFrame;
-import com.realitysink.cover.nodes.CoverScope;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 
-@NodeFields({
-        @NodeField(name = "slot", type = FrameSlot.class),
-        @NodeField(name = "scope", type = CoverScope.class)
-})
+/**
+ * Reads an array variable. Arrays are allocated while parsing, so the array is bound when the node
+ * is created and reading it is a constant instead of a lookup in the scope.
+ */
+@NodeField(name = "array", type = Object.class)
 public abstract class CoverReadArrayVariableNode extends CoverTypedExpressionNode {
-    protected abstract FrameSlot getSlot();
-    protected abstract CoverScope getScope();
+    protected abstract Object getArray();
 
     @Specialization
-    protected Object readObject(VirtualFrame frame) {
-
-        Object firstTry = getScope().getHeapObject(getSlot());
-
-        return firstTry;
+    protected Object readObject() {
+        return getArray();
     }
 
-    
     public CoverType getType() {
         return CoverType.ARRAY;
     }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Reads the <code>s</code> array of a work package. When the execution has bound it to the storage
+ * of the host, that buffer is the array; otherwise the array of the program itself is used.
+ */
+@NodeField(name = "array", type = Object.class)
+public abstract class CoverReadBoundArrayNode extends CoverTypedExpressionNode {
+    protected abstract Object getArray();
+
+    @Specialization
+    protected Object readBound(VirtualFrame frame) {
+        CoverExecution execution = CoverExecution.fromFrame(frame);
+        Object bound = execution.getBoundS();
+        return bound != null ? bound : getArray();
+    }
+
+    public CoverType getType() {
+        return CoverType.ARRAY;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverGlobal;
+
+/**
+ * Reads a global variable from the global storage of the program instance. While the global has
+ * not been written since it was initialized, the read is folded to its initial value.
+ */
+@NodeFields({
+    @NodeField(name = "global", type = CoverGlobal.class),
+    @NodeField(name = "type", type = CoverType.class)
+})
+@NodeInfo(shortName = "global")
+public abstract class CoverReadGlobalVariableNode extends CoverTypedExpressionNode {
+
+    protected abstract CoverGlobal getGlobal();
+
+    @Specialization(guards = "getGlobal().isLong()", assumptions = "getGlobal().getUnchanged()")
+    protected long readConstantLong() {
+        return getGlobal().getInitialLong();
+    }
+
+    @Specialization(guards = "getGlobal().isLong()", contains = "readConstantLong")
+    protected long readLong() {
+        return getGlobal().getStorage().getLong(getGlobal().getIndex());
+    }
+
+    @Specialization(guards = "getGlobal().isDouble()", assumptions = "getGlobal().getUnchanged()")
+    protected double readConstantDouble() {
+        return getGlobal().getInitialDouble();
+    }
+
+    @Specialization(guards = "getGlobal().isDouble()", contains = "readConstantDouble")
+    protected double readDouble() {
+        return getGlobal().getStorage().getDouble(getGlobal().getIndex());
+    }
+
+    @Specialization(guards = "getGlobal().isFloat()", assumptions = "getGlobal().getUnchanged()")
+    protected float readConstantFloat() {
+        return getGlobal().getInitialFloat();
+    }
+
+    @Specialization(guards = "getGlobal().isFloat()", contains = "readConstantFloat")
+    protected float readFloat() {
+        return getGlobal().getStorage().getFloat(getGlobal().getIndex());
+    }
+
+    @Specialization(guards = {"!getGlobal().isLong()", "!getGlobal().isDouble()", "!getGlobal().isFloat()"})
+    protected Object readObject() {
+        return getGlobal().getStorage().getObject(getGlobal().getIndex());
+    }
+}
@@ -16,6 +16,8 @@
  */
 package com.realitysink.cover.nodes.local;
 
+import java.nio.IntBuffer;
+
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -25,8 +27,13 @@ import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 @NodeChildren({@NodeChild("array"),@NodeChild("expressionNode")})
 public abstract class CoverReadSignedIntArrayValueNode extends CoverTypedExpressionNode {
     @Specialization
-    public long readSignedInt(long[] array, long index) {
-        return (int)array[(int) index];
+    public long readSignedInt(int[] array, long index) {
+        return array[(int) index];
+    }
+
+    @Specialization
+    public long readSignedInt(IntBuffer array, long index) {
+        return array.get((int) index);
     }
     
     @Override
@@ -46,14 +46,13 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.realitysink.cover.nodes.CoverType;
 import com.realitysink.cover.nodes.CoverTypedExpressionNode;
 import com.realitysink.cover.runtime.CoverRuntimeException;
-import com.realitysink.cover.slparser.SLNodeFactory;
 
 /**
  * Reads a function argument. Arguments are passed in as an object array.
  * <p>
- * Arguments are not type-specialized. To ensure that repeated accesses within a method are
- * specialized and can, e.g., be accessed without unboxing, all arguments are loaded into local
- * variables {@link SLNodeFactory#addFormalParameter in the method prologue}.
+ * The caller converts every argument to the declared type of its parameter, so the boxed value is
+ * always of the exact type read here and the cast cannot fail. All arguments are loaded into local
+ * variables in the prologue of the function.
  */
 public abstract class CoverReadSignedLongArgumentNode extends CoverTypedExpressionNode {
 
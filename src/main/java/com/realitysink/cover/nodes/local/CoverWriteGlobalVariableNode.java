@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverType.BasicType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverGlobal;
+
+/**
+ * Writes a global variable: the value is computed in the frame of the current function and stored
+ * in the global storage of the program instance. The first write stops reads of the global from
+ * being folded to its initial value.
+ */
+@NodeChild("valueNode")
+@NodeFields({
+    @NodeField(name = "global", type = CoverGlobal.class),
+    @NodeField(name = "type", type = CoverType.class)
+})
+@NodeInfo(shortName = "global=")
+public abstract class CoverWriteGlobalVariableNode extends CoverTypedExpressionNode {
+
+    protected abstract CoverGlobal getGlobal();
+
+    protected boolean isUnsignedInt() {
+        return getType().getBasicType() == BasicType.UNSIGNED_INT;
+    }
+
+    @Specialization(guards = "getGlobal().isLong()")
+    protected long writeLong(long value) {
+        getGlobal().written();
+        getGlobal().getStorage().setLong(getGlobal().getIndex(), isUnsignedInt() ? (int) value : value);
+        return value;
+    }
+
+    @Specialization(guards = "getGlobal().isDouble()")
+    protected double writeDouble(double value) {
+        getGlobal().written();
+        getGlobal().getStorage().setDouble(getGlobal().getIndex(), value);
+        return value;
+    }
+
+    @Specialization(guards = "getGlobal().isFloat()")
+    protected float writeFloat(float value) {
+        getGlobal().written();
+        getGlobal().getStorage().setFloat(getGlobal().getIndex(), value);
+        return value;
+    }
+
+    @Specialization(guards = {"!getGlobal().isLong()", "!getGlobal().isDouble()", "!getGlobal().isFloat()"})
+    protected Object writeObject(Object value) {
+        getGlobal().written();
+        getGlobal().getStorage().setObject(getGlobal().getIndex(), value);
+        return value;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverRuntimeException;
+import com.realitysink.cover.runtime.CoverStorageTracker;
+
+/**
+ * Writes an element of the <code>s</code> storage of a work package. If the execution tracks the
+ * changes to its storage, the write is reported to its {@link CoverStorageTracker}.
+ */
+@NodeChildren({@NodeChild("array"), @NodeChild("index"), @NodeChild("value")})
+@NodeField(name = "type", type = CoverType.class)
+@NodeInfo(shortName="s=")
+public abstract class CoverWriteStorageElementNode extends CoverTypedExpressionNode {
+    @Specialization
+    protected long writeStorageElement(VirtualFrame frame, int[] array, long index, long value) {
+        try {
+            CoverStorageTracker tracker = CoverExecution.getStorageTracker(frame);
+            if (tracker != null) {
+                tracker.written((int) index, array[(int) index], (int) value);
+            }
+            array[(int) index] = (int)value;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "index " + index + " out of bounds");
+        }
+        return value;
+    }
+
+    @Specialization
+    protected long writeStorageElement(VirtualFrame frame, IntBuffer array, long index, long value) {
+        try {
+            CoverStorageTracker tracker = CoverExecution.getStorageTracker(frame);
+            if (tracker != null) {
+                tracker.written((int) index, array.get((int) index), (int) value);
+            }
+            array.put((int) index, (int)value);
+        } catch (IndexOutOfBoundsException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "index " + index + " out of bounds");
+        }
+        return value;
+    }
+}
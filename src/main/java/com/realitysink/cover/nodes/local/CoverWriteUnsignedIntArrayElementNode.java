@@ -16,6 +16,8 @@
  */
 package com.realitysink.cover.nodes.local;
 
+import java.nio.IntBuffer;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
@@ -29,7 +31,7 @@ import com.realitysink.cover.runtime.CoverRuntimeException;
 @NodeInfo(shortName="=")
 public abstract class CoverWriteUnsignedIntArrayElementNode extends CoverTypedExpressionNode {
     @Specialization
-    protected long writeUIntArrayElement(long[] array, long index, long value) {
+    protected long writeUIntArrayElement(int[] array, long index, long value) {
         try {
             array[(int) index] = (int)value;
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -39,6 +41,17 @@ public abstract class CoverWriteUnsignedIntArrayElementNode extends CoverTypedEx
         return value;
     }
 
+    @Specialization
+    protected long writeUIntArrayElement(IntBuffer array, long index, long value) {
+        try {
+            array.put((int) index, (int)value);
+        } catch (IndexOutOfBoundsException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new CoverRuntimeException(this, "index " + index + " out of bounds");
+        }
+        return value;
+    }
+
     public CoverType getType() {
         return CoverType.SIGNED_INT;
     }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.local;
+
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Allocates a local array with an initializer list from the arena of the execution, once for
+ * every activation of the function that declares it, and copies the initial values into it in
+ * bulk. The initial values are computed once while parsing.
+ */
+public class CreateLocalArrayFromTemplateNode extends SLStatementNode {
+    private final FrameSlot frameSlot;
+    private final Object template;
+
+    public CreateLocalArrayFromTemplateNode(FrameSlot frameSlot, Object template) {
+        this.frameSlot = frameSlot;
+        this.template = template;
+    }
+
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        frame.setObject(frameSlot, CoverExecution.fromFrame(frame).getArena().allocateCopy(template));
+    }
+}
@@ -22,6 +22,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.realitysink.cover.nodes.SLExpressionNode;
 import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.runtime.CoverArena;
 import com.realitysink.cover.runtime.CoverRuntimeException;
 
 public class CreateLocalObjectArrayNode extends SLStatementNode {
@@ -37,7 +38,7 @@ public class CreateLocalObjectArrayNode extends SLStatementNode {
     @Override
     public void executeVoid(VirtualFrame frame) {
         try {
-            frame.setObject(frameSlot, new Object[(int) size.executeLong(frame)]);
+            frame.setObject(frameSlot, new Object[CoverArena.checkLength(this, size.executeLong(frame))]);
         } catch (UnexpectedResultException e) {
             throw new CoverRuntimeException(this, e);
         }
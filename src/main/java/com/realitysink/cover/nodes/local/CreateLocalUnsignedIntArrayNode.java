@@ -16,35 +16,35 @@
  */
 package com.realitysink.cover.nodes.local;
 
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
-import com.realitysink.cover.SingletonGlobalMaterializedFrame;
-import com.realitysink.cover.nodes.CoverScope;
 import com.realitysink.cover.nodes.SLExpressionNode;
 import com.realitysink.cover.nodes.SLStatementNode;
-import com.realitysink.cover.nodes.expression.SLUnsignedLongLiteralNode;
+import com.realitysink.cover.runtime.CoverArena;
+import com.realitysink.cover.runtime.CoverExecution;
 import com.realitysink.cover.runtime.CoverRuntimeException;
 
+/**
+ * Allocates a local uint array from the arena of the execution, once for every activation of the
+ * function that declares it.
+ */
 public class CreateLocalUnsignedIntArrayNode extends SLStatementNode {
     private final FrameSlot frameSlot;
     @Child
     private SLExpressionNode size;
-    private CoverScope scope;
 
-    public CreateLocalUnsignedIntArrayNode(FrameSlot frameSlot, CoverScope scope, SLExpressionNode size) {
+    public CreateLocalUnsignedIntArrayNode(FrameSlot frameSlot, SLExpressionNode size) {
         this.frameSlot = frameSlot;
         this.size = size;
-        this.scope = scope;
-
-        SLUnsignedLongLiteralNode sizeNode = (SLUnsignedLongLiteralNode) size;
-        scope.setHeapObject(frameSlot, new long[(int)sizeNode.getValue()]);
     }
 
     @Override
     public void executeVoid(VirtualFrame frame) {
-        // pass
-        // TODO FIXME: This is not the correct way to introduce arrays
+        try {
+            frame.setObject(frameSlot, CoverExecution.fromFrame(frame).getArena().allocateInts(CoverArena.checkLength(this, size.executeLong(frame))));
+        } catch (UnexpectedResultException e) {
+            throw new CoverRuntimeException(this, e);
+        }
     }
 }
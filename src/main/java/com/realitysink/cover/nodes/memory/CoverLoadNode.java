@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.memory;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverType.BasicType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverRuntimeException;
+
+/**
+ * Loads a value of the element type from the linear memory at the address computed by the child,
+ * as in <code>*p</code> and <code>p[i]</code>. Ints are loaded sign extended, like they are kept in
+ * variables.
+ */
+@NodeChild("addressNode")
+@NodeField(name = "elementType", type = CoverType.class)
+@NodeInfo(shortName = "load")
+public abstract class CoverLoadNode extends CoverTypedExpressionNode {
+
+    protected abstract CoverType getElementType();
+
+    protected boolean isInt() {
+        BasicType type = getElementType().getBasicType();
+        return type == BasicType.SIGNED_INT || type == BasicType.UNSIGNED_INT;
+    }
+
+    protected boolean isLong() {
+        BasicType type = getElementType().getBasicType();
+        return type == BasicType.SIGNED_LONG || type == BasicType.UNSIGNED_LONG || type == BasicType.POINTER;
+    }
+
+    protected boolean isDouble() {
+        return getElementType().getBasicType() == BasicType.DOUBLE;
+    }
+
+    protected boolean isFloat() {
+        return getElementType().getBasicType() == BasicType.FLOAT;
+    }
+
+    @Specialization(guards = "isInt()")
+    protected long loadInt(VirtualFrame frame, long address) {
+        try {
+            return CoverExecution.fromFrame(frame).getMemory().getInt(address);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+    }
+
+    @Specialization(guards = "isLong()")
+    protected long loadLong(VirtualFrame frame, long address) {
+        try {
+            return CoverExecution.fromFrame(frame).getMemory().getLong(address);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+    }
+
+    @Specialization(guards = "isDouble()")
+    protected double loadDouble(VirtualFrame frame, long address) {
+        try {
+            return CoverExecution.fromFrame(frame).getMemory().getDouble(address);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+    }
+
+    @Specialization(guards = "isFloat()")
+    protected float loadFloat(VirtualFrame frame, long address) {
+        try {
+            return CoverExecution.fromFrame(frame).getMemory().getFloat(address);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+    }
+
+    private CoverRuntimeException invalidAddress(long address) {
+        CompilerDirectives.transferToInterpreter();
+        return new CoverRuntimeException(this, "invalid memory access at address " + address);
+    }
+
+    @Override
+    public CoverType getType() {
+        return getElementType();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.memory;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+
+/**
+ * Pointer arithmetic: <code>p + n</code> advances the pointer by <code>n</code> elements of the
+ * type it points to.
+ */
+@NodeChildren({@NodeChild("pointerNode"), @NodeChild("offsetNode")})
+@NodeFields({
+    @NodeField(name = "type", type = CoverType.class),
+    @NodeField(name = "elementSize", type = long.class)
+})
+@NodeInfo(shortName = "p+")
+public abstract class CoverPointerAddNode extends CoverTypedExpressionNode {
+
+    protected abstract long getElementSize();
+
+    @Specialization
+    protected long add(long pointer, long offset) {
+        return pointer + offset * getElementSize();
+    }
+}
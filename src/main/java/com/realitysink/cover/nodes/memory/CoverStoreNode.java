@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.nodes.memory;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import com.realitysink.cover.nodes.CoverType;
+import com.realitysink.cover.nodes.CoverType.BasicType;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.runtime.CoverExecution;
+import com.realitysink.cover.runtime.CoverRuntimeException;
+
+/**
+ * Stores a value of the element type into the linear memory at the address computed by the first
+ * child, as in <code>*p = x</code> and <code>p[i] = x</code>. Returns the value as stored.
+ */
+@NodeChildren({@NodeChild("addressNode"), @NodeChild("valueNode")})
+@NodeField(name = "elementType", type = CoverType.class)
+@NodeInfo(shortName = "store")
+public abstract class CoverStoreNode extends CoverTypedExpressionNode {
+
+    protected abstract CoverType getElementType();
+
+    protected boolean isInt() {
+        BasicType type = getElementType().getBasicType();
+        return type == BasicType.SIGNED_INT || type == BasicType.UNSIGNED_INT;
+    }
+
+    protected boolean isLong() {
+        BasicType type = getElementType().getBasicType();
+        return type == BasicType.SIGNED_LONG || type == BasicType.UNSIGNED_LONG || type == BasicType.POINTER;
+    }
+
+    protected boolean isDouble() {
+        return getElementType().getBasicType() == BasicType.DOUBLE;
+    }
+
+    protected boolean isFloat() {
+        return getElementType().getBasicType() == BasicType.FLOAT;
+    }
+
+    @Specialization(guards = "isInt()")
+    protected long storeInt(VirtualFrame frame, long address, long value) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().putInt(address, (int) value);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+        return (int) value;
+    }
+
+    @Specialization(guards = "isLong()")
+    protected long storeLong(VirtualFrame frame, long address, long value) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().putLong(address, value);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+        return value;
+    }
+
+    @Specialization(guards = "isDouble()")
+    protected double storeDouble(VirtualFrame frame, long address, double value) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().putDouble(address, value);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+        return value;
+    }
+
+    @Specialization(guards = "isFloat()")
+    protected float storeFloat(VirtualFrame frame, long address, float value) {
+        try {
+            CoverExecution.fromFrame(frame).getMemory().putFloat(address, value);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalidAddress(address);
+        }
+        return value;
+    }
+
+    private CoverRuntimeException invalidAddress(long address) {
+        CompilerDirectives.transferToInterpreter();
+        return new CoverRuntimeException(this, "invalid memory access at address " + address);
+    }
+
+    @Override
+    public CoverType getType() {
+        return getElementType();
+    }
+}
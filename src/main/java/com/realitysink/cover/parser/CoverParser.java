@@ -17,8 +17,11 @@
 package com.realitysink.cover.parser;
 
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,7 +29,9 @@ import com.oracle.truffle.api.ExecutionContext;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.Layout;
 import com.oracle.truffle.api.object.Shape;
@@ -34,25 +39,36 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.realitysink.cover.CoverLanguage;
 import com.realitysink.cover.CoverMain;
-import com.realitysink.cover.SingletonGlobalMaterializedFrame;
 import com.realitysink.cover.builtins.*;
 import com.realitysink.cover.nodes.*;
 import com.realitysink.cover.nodes.CoverType.BasicType;
 import com.realitysink.cover.nodes.access.*;
+import com.realitysink.cover.nodes.call.CoverDirectCallNode;
 import com.realitysink.cover.nodes.call.SLInvokeNode;
+import com.realitysink.cover.nodes.controlflow.CoverArenaScopeNode;
+import com.realitysink.cover.nodes.controlflow.CoverBlockArenaScopeNode;
+import com.realitysink.cover.nodes.controlflow.CoverReturnNode;
+import com.realitysink.cover.nodes.controlflow.CoverSwitchNode;
 import com.realitysink.cover.nodes.controlflow.SLBlockNode;
 import com.realitysink.cover.nodes.controlflow.SLBreakNode;
+import com.realitysink.cover.nodes.controlflow.SLContinueNode;
 import com.realitysink.cover.nodes.controlflow.SLFunctionBodyNode;
 import com.realitysink.cover.nodes.controlflow.SLIfNode;
-import com.realitysink.cover.nodes.controlflow.SLReturnNode;
 import com.realitysink.cover.nodes.controlflow.SLWhileNode;
 import com.realitysink.cover.nodes.expression.*;
 import com.realitysink.cover.nodes.local.*;
+import com.realitysink.cover.nodes.memory.CoverLoadNodeGen;
+import com.realitysink.cover.nodes.memory.CoverPointerAddNodeGen;
+import com.realitysink.cover.nodes.memory.CoverPointerCastNodeGen;
+import com.realitysink.cover.nodes.memory.CoverPointerDifferenceNodeGen;
+import com.realitysink.cover.nodes.memory.CoverStoreNodeGen;
+import com.realitysink.cover.runtime.CoverGlobal;
+import com.realitysink.cover.runtime.CoverMemoryAccount;
 import com.realitysink.cover.runtime.SLFunction;
 import com.realitysink.cover.runtime.SLObjectType;
 
-import com.realitysink.cover.runtime.SingletonFrame;
 import org.eclipse.cdt.core.dom.ast.ExpansionOverlapsBoundaryException;
+import org.eclipse.cdt.core.dom.ast.IASTArrayModifier;
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
@@ -62,9 +78,13 @@ import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
 import org.eclipse.cdt.core.dom.ast.IASTInitializerClause;
 import org.eclipse.cdt.core.dom.ast.IASTLiteralExpression;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTPointer;
+import org.eclipse.cdt.core.dom.ast.IASTPointerOperator;
 import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIncludeStatement;
 import org.eclipse.cdt.core.dom.ast.IASTStatement;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IASTTypeId;
+import org.eclipse.cdt.core.dom.ast.IASTTypeIdExpression;
 import org.eclipse.cdt.core.dom.ast.IASTUnaryExpression;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTExpression;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTParameterDeclaration;
@@ -80,12 +100,15 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTArrayDeclarator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTArraySubscriptExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTBinaryExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTBreakStatement;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTCaseStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTCastExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTCompositeTypeSpecifier;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTCompoundStatement;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTContinueStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTConditionalExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTDeclarationStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTDeclarator;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTDefaultStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTDoStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTEqualsInitializer;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTExpressionStatement;
@@ -96,13 +119,16 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTFunctionDeclarator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTFunctionDefinition;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTIdExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTIfStatement;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTInitializerList;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTLiteralExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNamedTypeSpecifier;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNullStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTReturnStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTSimpleDeclSpecifier;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTSimpleDeclaration;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTSwitchStatement;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTypeIdExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTUnaryExpression;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTVisibilityLabel;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTWhileStatement;
@@ -113,8 +139,22 @@ import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.core.runtime.CoreException;
 
 public class CoverParser {
+    /** Local arrays up to this many elements, only indexed with constants, become separate variables. */
+    private static final int MAX_SCALAR_REPLACED_LENGTH = 16;
+
     private Source source;
     final CoverScope fileScope;
+    private final List<SLStatementNode> globalInitializers = new ArrayList<>();
+    /* the direct calls, and where they are in the source, to bind once every function is defined */
+    private final Map<CoverDirectCallNode, IASTNode> directCalls = new LinkedHashMap<>();
+    private boolean localArraysDeclared;
+    /* the block being parsed allocates local arrays from the arena */
+    private boolean blockArraysDeclared;
+    /* the return slot of the function being parsed, null for void functions and outside functions */
+    private CoverReference returnReference;
+    private boolean linearMemoryUsed;
+    /* the bytes taken by the global arrays declared so far, they count against every execution */
+    private long globalArrayBytes;
     
     public CoverParser(Source source, CoverScope scope) {
         this.source = source;
@@ -131,6 +171,26 @@ public class CoverParser {
         parseRaw();
 
     }
+
+    /**
+     * The code initializing the globals that could not be given a literal initial value, to be
+     * run before every run of the program, or <code>null</code> if there is no such global.
+     */
+    public RootCallTarget createGlobalInitializer() {
+        if (globalInitializers.isEmpty()) {
+            return null;
+        }
+        SLBlockNode block = new SLBlockNode(globalInitializers.stream().toArray(SLStatementNode[]::new));
+        SLRootNode rootNode = new SLRootNode(fileScope.getFrameDescriptor(), new SLFunctionBodyNode(block), null, "<globals>");
+        return Truffle.getRuntime().createCallTarget(rootNode);
+    }
+
+    /**
+     * True if the program uses pointers, so its instances need a linear memory.
+     */
+    public boolean usesLinearMemory() {
+        return linearMemoryUsed;
+    }
     
     private void parseRaw() throws CoreException {
         //System.err.println("Parsing " + source.getPath());
@@ -167,7 +227,19 @@ public class CoverParser {
 
         // RootNode
         for (IASTNode node : translationUnit.getChildren()) {
-            processStatement(fileScope, node);
+            SLStatementNode statement = processStatement(fileScope, node);
+            if (!(statement instanceof CoverNopExpression)) {
+                globalInitializers.add(statement);
+            }
+        }
+
+        // now every function has its call target, also the ones called before their definition
+        for (Map.Entry<CoverDirectCallNode, IASTNode> call : directCalls.entrySet()) {
+            SLFunction function = call.getKey().getFunction();
+            if (!isDefined(function)) {
+                throw new CoverParseException(call.getValue(), "function " + function.getName() + " is declared but never defined");
+            }
+            call.getKey().bind();
         }
 
 
@@ -214,10 +286,16 @@ public class CoverParser {
             result.addStatementTag();
         } else if (node instanceof CPPASTIfStatement) {
             result =  processIfStatement(scope, (CPPASTIfStatement) node);
+        } else if (node instanceof CPPASTSwitchStatement) {
+            result =  processSwitch(scope, (CPPASTSwitchStatement) node);
+        } else if (node instanceof CPPASTCaseStatement || node instanceof CPPASTDefaultStatement) {
+            throw new CoverParseException(node, "case labels are only supported directly in the body of a switch");
         } else if (node instanceof CPPASTSimpleDeclaration) {
             result =  processDeclaration(scope, (CPPASTSimpleDeclaration) node);
         } else if (node instanceof CPPASTBreakStatement) {
             result =  new SLBreakNode();
+        } else if (node instanceof CPPASTContinueStatement) {
+            result =  new SLContinueNode();
         } else if (node instanceof CPPASTNullStatement) {
             result =  new CoverNopExpression();
         } else {
@@ -256,16 +334,109 @@ public class CoverParser {
     }
 
     private SLStatementNode processDo(CoverScope scope, CPPASTDoStatement node) {
-        CoverScope scope1 = new CoverScope(scope);
-        CoverScope scope2 = new CoverScope(scope);
+        CoverScope bodyScope = new CoverScope(scope);
         CoverScope conditionScope = new CoverScope(scope);
-        // a do {} while() loop is just a while loop with the body prepended
+        // the condition is tested after the body, also after a continue
         CoverTypedExpressionNode conditionNode = SLForceBooleanNodeGen.create(processExpression(conditionScope, node.getCondition(), null));
-        SLStatementNode bodyNode1 = processStatement(scope1, node.getBody());
-        SLStatementNode bodyNode2 = processStatement(scope2, node.getBody());
-        final SLWhileNode whileNode = new SLWhileNode(conditionNode, bodyNode2);
-        SLBlockNode blockNode = new SLBlockNode(new SLStatementNode[]{bodyNode1, whileNode});
-        return blockNode;
+        SLStatementNode bodyNode = processStatement(bodyScope, node.getBody());
+        return new SLWhileNode(conditionNode, bodyNode, null, true, returnedSlot(scope, node.getBody()));
+    }
+
+    /**
+     * Splits the body of the switch into segments that each start at a case label. Labels must be
+     * directly in the body, the value must be an integer and the case values integer constants.
+     */
+    private SLStatementNode processSwitch(CoverScope scope, CPPASTSwitchStatement node) {
+        CoverScope switchScope = new CoverScope(scope);
+        CoverTypedExpressionNode valueNode = processExpression(switchScope, node.getControllerExpression(), null);
+        BasicType valueType = valueNode.getType().getBasicType();
+        if (valueType != BasicType.SIGNED_INT && valueType != BasicType.UNSIGNED_INT
+                && valueType != BasicType.SIGNED_LONG && valueType != BasicType.UNSIGNED_LONG) {
+            throw new CoverParseException(node, "switch value must be an integer");
+        }
+        IASTStatement body = node.getBody();
+        IASTStatement[] statements = body instanceof IASTCompoundStatement ? ((IASTCompoundStatement) body).getStatements() : new IASTStatement[] {body};
+        CoverScope bodyScope = new CoverScope(switchScope);
+
+        List<SLStatementNode> segments = new ArrayList<>();
+        List<SLStatementNode> segment = new ArrayList<>();
+        Map<Long, Integer> cases = new LinkedHashMap<>();
+        List<Long> pendingLabels = new ArrayList<>();
+        boolean defaultPending = false;
+        int defaultTarget = -1;
+        for (IASTStatement statement : statements) {
+            if (statement instanceof CPPASTCaseStatement) {
+                long value = caseValue(bodyScope, ((CPPASTCaseStatement) statement).getExpression(), valueType);
+                if (cases.containsKey(value) || pendingLabels.contains(value)) {
+                    throw new CoverParseException(statement, "duplicate case value " + value);
+                }
+                pendingLabels.add(value);
+                continue;
+            } else if (statement instanceof CPPASTDefaultStatement) {
+                if (defaultPending || defaultTarget >= 0) {
+                    throw new CoverParseException(statement, "multiple default labels in one switch");
+                }
+                defaultPending = true;
+                continue;
+            }
+            if (!pendingLabels.isEmpty() || defaultPending) {
+                // a label starts a new segment, the previous one falls through into it
+                if (!segment.isEmpty()) {
+                    segments.add(new SLBlockNode(segment.toArray(new SLStatementNode[segment.size()])));
+                    segment = new ArrayList<>();
+                }
+                for (Long value : pendingLabels) {
+                    cases.put(value, segments.size());
+                }
+                if (defaultPending) {
+                    defaultTarget = segments.size();
+                }
+                pendingLabels.clear();
+                defaultPending = false;
+            }
+            segment.add(processStatement(bodyScope, statement));
+        }
+        if (!segment.isEmpty()) {
+            segments.add(new SLBlockNode(segment.toArray(new SLStatementNode[segment.size()])));
+        }
+        // labels at the end of the body have nothing to run
+        for (Long value : pendingLabels) {
+            cases.put(value, segments.size());
+        }
+        if (defaultTarget < 0) {
+            defaultTarget = segments.size();
+        }
+
+        long[] keys = new long[cases.size()];
+        int[] targets = new int[cases.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : cases.entrySet()) {
+            keys[i] = entry.getKey();
+            targets[i] = entry.getValue();
+            i++;
+        }
+        return new CoverSwitchNode(valueNode, keys, targets, defaultTarget, segments.toArray(new SLStatementNode[segments.size()]));
+    }
+
+    /**
+     * A case value, converted to the type of the switch value like in C and represented like a
+     * value of that type at run time: an <code>unsigned int</code> is kept sign-extended, so
+     * <code>case 0xFFFFFFFFu</code> matches the <code>unsigned int</code> -1.
+     */
+    private long caseValue(CoverScope scope, IASTExpression expression, BasicType valueType) {
+        Number value;
+        try {
+            value = evaluateConstant(scope, expression);
+        } catch (CoverParseException e) {
+            throw new CoverParseException(expression, "case value must be an integer constant");
+        }
+        if (value instanceof Double || value instanceof Float) {
+            throw new CoverParseException(expression, "case value must be an integer constant");
+        }
+        if (valueType == BasicType.SIGNED_INT || valueType == BasicType.UNSIGNED_INT) {
+            return (int) value.longValue();
+        }
+        return value.longValue();
     }
 
     private SLStatementNode processForStatement(CoverScope scope, CPPASTForStatement node) {
@@ -309,13 +480,11 @@ public class CoverParser {
          *       i++;
          *     }
          *   }
+         * where the i++ also runs after a continue in the body.
          */
-        SLStatementNode[] loopNodes = new SLStatementNode[] {bodyNode, iterationNode};
-        SLBlockNode loopBlock = new SLBlockNode(loopNodes);
-        
-        final SLWhileNode whileNode = new SLWhileNode(conditionNode, loopBlock);
+        final SLWhileNode whileNode = new SLWhileNode(conditionNode, bodyNode, iterationNode, false, returnedSlot(scope, node.getBody()));
 
-        SLStatementNode[] setupNodes = new SLStatementNode[] {initializerNode, whileNode}; 
+        SLStatementNode[] setupNodes = new SLStatementNode[] {initializerNode, whileNode};
         SLBlockNode setupBlock = new SLBlockNode(setupNodes);
         
         return setupBlock;        
@@ -323,8 +492,35 @@ public class CoverParser {
 
     private SLStatementNode processReturn(CoverScope scope, CPPASTReturnStatement node) {
         IASTExpression returnValue = node.getReturnValue();
-        final SLReturnNode returnNode = new SLReturnNode(processExpression(scope, returnValue, null));
-        return returnNode;
+        if (returnReference == null) {
+            // the value of a return in a void function is only evaluated
+            return new CoverReturnNode(returnValue == null ? null : processExpression(scope, returnValue, null));
+        } else if (returnValue == null) {
+            throw new CoverParseException(node, "return without a value in a function returning " + returnReference.getType());
+        }
+        CoverTypedExpressionNode value = convert(node, processExpression(scope, returnValue, null), returnReference.getType());
+        return new CoverReturnNode(createSimpleAssignmentNode(node, returnReference, value));
+    }
+
+    /**
+     * Converts a value to a declared type, of a parameter or a function result, so it is passed as
+     * exactly the primitive the receiving side reads: a <code>long</code> for integers and
+     * pointers, a <code>double</code> or a <code>float</code>.
+     */
+    private static CoverTypedExpressionNode convert(IASTNode node, CoverTypedExpressionNode value, CoverType type) {
+        boolean pointers = type.getBasicType() == BasicType.POINTER && value.getType().getBasicType() == BasicType.POINTER;
+        if (!pointers && !type.canAccept(value.getType())) {
+            throw new CoverParseException(node, "cannot convert " + value.getType() + " to " + type);
+        }
+        if ((!isNumber(type) && type.getBasicType() != BasicType.POINTER) || representation(value.getType()) == representation(type)) {
+            return value;
+        }
+        return CoverConvertNodeGen.create(value, type);
+    }
+
+    private static BasicType representation(CoverType type) {
+        BasicType basicType = type.getBasicType();
+        return basicType == BasicType.DOUBLE || basicType == BasicType.FLOAT ? basicType : BasicType.SIGNED_LONG;
     }
 
     private SLStatementNode processWhile(CoverScope scope, CPPASTWhileStatement node) {
@@ -339,10 +535,31 @@ public class CoverParser {
         //CoverTypedExpressionNode conditionNode = SLForceBooleanNodeGen.create(processExpression(scope, node.getCondition(), null));
         CoverTypedExpressionNode conditionNode = processExpression(scope, node.getCondition(), null);
         SLStatementNode bodyNode = processStatement(scope, node.getBody());
-        final SLWhileNode whileNode = new SLWhileNode(conditionNode, bodyNode);
+        final SLWhileNode whileNode = new SLWhileNode(conditionNode, bodyNode, null, false, returnedSlot(scope, node.getBody()));
         return whileNode;
     }
 
+    /**
+     * The slot a loop with the given body sets when the body returns, so the loop can report the
+     * return as a status instead of throwing; null if the body has no return. All loops of a
+     * function share it.
+     */
+    private static FrameSlot returnedSlot(CoverScope scope, IASTStatement body) {
+        return containsReturn(body) ? scope.getFrameDescriptor().findOrAddFrameSlot("<returned>", FrameSlotKind.Boolean) : null;
+    }
+
+    private static boolean containsReturn(IASTNode node) {
+        if (node instanceof CPPASTReturnStatement) {
+            return true;
+        }
+        for (IASTNode child : node.getChildren()) {
+            if (containsReturn(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private CoverTypedExpressionNode processExpression(CoverScope scope, IASTExpression expression, CoverType type) {
         if (expression == null) {
             // FIXME: do we want to silently do this?
@@ -363,8 +580,9 @@ public class CoverParser {
         } else if (expression instanceof CPPASTUnaryExpression) {
             result = processUnary(scope, (CPPASTUnaryExpression) expression);
         } else if (expression instanceof CPPASTCastExpression) {
-            warn(expression, "ignoring cast");
-            result = processExpression(scope, ((CPPASTCastExpression)expression).getOperand(), null);
+            result = processCast(scope, (CPPASTCastExpression) expression);
+        } else if (expression instanceof CPPASTTypeIdExpression) {
+            result = processTypeIdExpression(scope, (CPPASTTypeIdExpression) expression);
         } else if (expression instanceof CPPASTFieldReference) {
             result = processFieldReference(scope, (CPPASTFieldReference)expression, null);
         } else if (expression instanceof CPPASTConditionalExpression) {
@@ -376,6 +594,26 @@ public class CoverParser {
         return result;
     }
 
+    private CoverTypedExpressionNode processCast(CoverScope scope, CPPASTCastExpression expression) {
+        CoverTypedExpressionNode operand = processExpression(scope, expression.getOperand(), null);
+        IASTTypeId typeId = expression.getTypeId();
+        if (typeId.getAbstractDeclarator().getPointerOperators().length > 0) {
+            CoverType pointerType = processPointerOperators(typeId.getAbstractDeclarator(), processDeclSpecifier(scope, typeId.getDeclSpecifier()));
+            return CoverPointerCastNodeGen.create(operand, pointerType);
+        }
+        warn(expression, "ignoring cast");
+        return operand;
+    }
+
+    private CoverTypedExpressionNode processTypeIdExpression(CoverScope scope, CPPASTTypeIdExpression expression) {
+        if (expression.getOperator() != IASTTypeIdExpression.op_sizeof) {
+            throw new CoverParseException(expression, "unsupported type expression " + expression.getOperator());
+        }
+        IASTTypeId typeId = expression.getTypeId();
+        CoverType type = processPointerOperators(typeId.getAbstractDeclarator(), processDeclSpecifier(scope, typeId.getDeclSpecifier()));
+        return new SLUnsignedLongLiteralNode(type.getSize(expression));
+    }
+
     private CoverTypedExpressionNode processConditionalExpression(CoverScope scope,
             CPPASTConditionalExpression expression, Object object) {
         CoverTypedExpressionNode condition = processExpression(scope, expression.getLogicalConditionExpression(),null);
@@ -413,25 +651,31 @@ public class CoverParser {
         ICPPASTExpression array = expression.getArrayExpression();
         IASTExpression subscript = expression.getSubscriptExpression();
         
-        CoverReference ref = scope.findReference(array.getRawSignature());
-        if (ref == null) {
-            throw new CoverParseException(expression, "identifier not found");
+        CoverReference ref = scope.findReference(subscriptedArray(expression).getRawSignature());
+        if (ref == null || ref.getType().getBasicType() != BasicType.ARRAY) {
+            // p[i] is *(p + i)
+            CoverTypedExpressionNode pointer = processExpression(scope, array, null);
+            if (pointer.getType().getBasicType() != BasicType.POINTER) {
+                throw new CoverParseException(expression, "does not reference an array or a pointer");
+            }
+            return createLoadNode(expression, createPointerAddNode(expression, pointer, processExpression(scope, subscript, null)));
         }
-        if (ref.getType().getBasicType() != BasicType.ARRAY) {
-            throw new CoverParseException(expression, "does not reference an array");
+        if (ref.getElements() != null) {
+            return createReadVariableNode(expression, ref.getElements()[constantIndex(scope, subscript)]);
         }
+        CoverTypedExpressionNode index = createArrayIndexNode(scope, expression, ref);
         if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.UNSIGNED_LONG) {
-            return CoverReadUnsignedLongArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadUnsignedLongArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.SIGNED_LONG) {
-            return CoverReadSignedLongArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadSignedLongArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.UNSIGNED_INT) {
-            return CoverReadUnsignedIntArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadUnsignedIntArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.SIGNED_INT) {
-            return CoverReadSignedIntArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadSignedIntArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.DOUBLE) {
-            return CoverReadDoubleArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadDoubleArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else if (ref.getType().getTypeOfArrayContents().getBasicType() == BasicType.FLOAT) {
-            return CoverReadFloatArrayValueNodeGen.create(CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope), processExpression(scope, subscript, null));
+            return CoverReadFloatArrayValueNodeGen.create(createReadArrayNode(scope, ref), index);
         } else {
             throw new CoverParseException(expression, "unsupported array type " + ref.getType().getTypeOfArrayContents().getBasicType());
         }
@@ -488,9 +732,13 @@ public class CoverParser {
             CoverTypedExpressionNode rightNode = processExpression(scope, expression.getOperand2(), null);
             result = createSubNode(expression, leftNode, rightNode);
         } else if (operator == CPPASTBinaryExpression.op_logicalAnd) {
-            CoverTypedExpressionNode leftNode = processExpression(scope, expression.getOperand1(), null);
-            CoverTypedExpressionNode rightNode = processExpression(scope, expression.getOperand2(), null);
-            result = SLLogicalAndNodeGen.create(leftNode, rightNode);
+            CoverTypedExpressionNode leftNode = SLForceBooleanNodeGen.create(processExpression(scope, expression.getOperand1(), null));
+            CoverTypedExpressionNode rightNode = SLForceBooleanNodeGen.create(processExpression(scope, expression.getOperand2(), null));
+            result = new SLLogicalAndNode(leftNode, rightNode);
+        } else if (operator == CPPASTBinaryExpression.op_logicalOr) {
+            CoverTypedExpressionNode leftNode = SLForceBooleanNodeGen.create(processExpression(scope, expression.getOperand1(), null));
+            CoverTypedExpressionNode rightNode = SLForceBooleanNodeGen.create(processExpression(scope, expression.getOperand2(), null));
+            result = new SLLogicalOrNode(leftNode, rightNode);
         } else if (operator == CPPASTBinaryExpression.op_binaryAndAssign) {
             CoverTypedExpressionNode change = processExpression(scope, expression.getOperand2(), null);
             CoverTypedExpressionNode source = processExpression(scope, expression.getOperand1(), null);
@@ -577,6 +825,11 @@ public class CoverParser {
     }
 
     private CoverTypedExpressionNode createSubNode(CPPASTBinaryExpression expression, CoverTypedExpressionNode leftNode, CoverTypedExpressionNode rightNode) {
+        if (leftNode.getType().getBasicType() == BasicType.POINTER && rightNode.getType().getBasicType() == BasicType.POINTER) {
+            return CoverPointerDifferenceNodeGen.create(leftNode, rightNode, leftNode.getType().getPointeeType().getSize(expression));
+        } else if (leftNode.getType().getBasicType() == BasicType.POINTER) {
+            return createPointerAddNode(expression, leftNode, SLLongFlipsignNodeGen.create(rightNode));
+        }
         CoverType newType = leftNode.getType().combine(expression, rightNode.getType());
         if (newType.equals(CoverType.SIGNED_LONG)) {
             return CoverSubSignedLongNodeGen.create(leftNode, rightNode);
@@ -640,7 +893,7 @@ public class CoverParser {
         CoverType newType = leftNode.getType().combine(expression, rightNode.getType());
         if (newType.equals(CoverType.SIGNED_LONG)) {
             return CoverLessOrEqualSignedLongNodeGen.create(leftNode, rightNode);
-        } else if (newType.equals(CoverType.UNSIGNED_LONG)) {
+        } else if (newType.equals(CoverType.UNSIGNED_LONG) || newType.getBasicType() == BasicType.POINTER) {
             return CoverLessOrEqualUnsignedLongNodeGen.create(leftNode, rightNode);
         } else if (newType.equals(CoverType.SIGNED_INT)) {
             return CoverLessOrEqualSignedIntNodeGen.create(leftNode, rightNode);
@@ -660,7 +913,7 @@ public class CoverParser {
         CoverType newType = leftNode.getType().combine(expression, rightNode.getType());
         if (newType.equals(CoverType.SIGNED_LONG)) {
             return CoverLessThanSignedLongNodeGen.create(leftNode, rightNode);
-        } else if (newType.equals(CoverType.UNSIGNED_LONG)) {
+        } else if (newType.equals(CoverType.UNSIGNED_LONG) || newType.getBasicType() == BasicType.POINTER) {
             return CoverLessThanUnsignedLongNodeGen.create(leftNode, rightNode);
         } else if (newType.equals(CoverType.SIGNED_INT)) {
             return CoverLessThanSignedIntNodeGen.create(leftNode, rightNode);
@@ -697,6 +950,11 @@ public class CoverParser {
 
     private CoverTypedExpressionNode createAddNode(CPPASTBinaryExpression node, CoverTypedExpressionNode leftNode,
             CoverTypedExpressionNode rightNode) {
+        if (leftNode.getType().getBasicType() == BasicType.POINTER) {
+            return createPointerAddNode(node, leftNode, rightNode);
+        } else if (rightNode.getType().getBasicType() == BasicType.POINTER) {
+            return createPointerAddNode(node, rightNode, leftNode);
+        }
         CoverType newType = leftNode.getType().combine(node, rightNode.getType());
         if (newType.equals(CoverType.SIGNED_LONG)) {
             return CoverAddSignedLongNodeGen.create(leftNode, rightNode);
@@ -715,6 +973,45 @@ public class CoverParser {
         }
     }
 
+    /**
+     * <code>p + offset</code>: the address <code>offset</code> elements past the one
+     * <code>p</code> points to.
+     */
+    private CoverTypedExpressionNode createPointerAddNode(IASTNode node, CoverTypedExpressionNode pointer, CoverTypedExpressionNode offset) {
+        return CoverPointerAddNodeGen.create(pointer, offset, pointer.getType(), pointer.getType().getPointeeType().getSize(node));
+    }
+
+    private CoverType dereferencedType(IASTNode node, CoverTypedExpressionNode pointer) {
+        if (pointer.getType().getBasicType() != BasicType.POINTER) {
+            throw new CoverParseException(node, "not a pointer");
+        }
+        CoverType type = pointer.getType().getPointeeType();
+        switch (type.getBasicType()) {
+        case SIGNED_INT:
+        case UNSIGNED_INT:
+        case SIGNED_LONG:
+        case UNSIGNED_LONG:
+        case DOUBLE:
+        case FLOAT:
+        case POINTER:
+            return type;
+        default:
+            throw new CoverParseException(node, "cannot dereference a pointer to " + type.getBasicType());
+        }
+    }
+
+    private CoverTypedExpressionNode createLoadNode(IASTNode node, CoverTypedExpressionNode pointer) {
+        return CoverLoadNodeGen.create(pointer, dereferencedType(node, pointer));
+    }
+
+    private CoverTypedExpressionNode createStoreNode(IASTNode node, CoverTypedExpressionNode pointer, CoverTypedExpressionNode value) {
+        CoverType type = dereferencedType(node, pointer);
+        if (!type.canAccept(value.getType())) {
+            throw new CoverParseException(node, "cannot assign "+value.getType()+" to " + type);
+        }
+        return CoverStoreNodeGen.create(pointer, value, type);
+    }
+
     private CoverTypedExpressionNode createWriteVariableNode(CoverScope scope, IASTExpression node, CoverTypedExpressionNode value) {
         // We parse the "left" expression, and then we add an assignment
         // Types of assignments:
@@ -733,17 +1030,29 @@ public class CoverParser {
             CPPASTArraySubscriptExpression x = (CPPASTArraySubscriptExpression) node;
             ICPPASTExpression array = x.getArrayExpression();
             IASTExpression argument = (IASTExpression) x.getArgument();
-            CoverTypedExpressionNode indexExpression = processExpression(scope, argument, null);
             
-            CoverReference ref = scope.findReference(array.getRawSignature());
-            if (ref == null) throw new CoverParseException(node, "not found");
+            CoverReference ref = scope.findReference(subscriptedArray(x).getRawSignature());
+            if (ref == null || ref.getType().getBasicType() != BasicType.ARRAY) {
+                // p[i] = x is *(p + i) = x
+                CoverTypedExpressionNode pointer = processExpression(scope, array, null);
+                if (pointer.getType().getBasicType() != BasicType.POINTER) {
+                    throw new CoverParseException(node, "is not an array or a pointer");
+                }
+                return createStoreNode(node, createPointerAddNode(node, pointer, processExpression(scope, argument, null)), value);
+            }
+            if (ref.getElements() != null) {
+                return createSimpleAssignmentNode(node, ref.getElements()[constantIndex(scope, argument)], value);
+            }
+            CoverTypedExpressionNode indexExpression = createArrayIndexNode(scope, x, ref);
             FrameSlot frameSlot = ref.getFrameSlot();
             if (frameSlot == null) throw new CoverParseException(node, "no frameslot");
             if (ref.getType().getBasicType() != BasicType.ARRAY)
                 throw new CoverParseException(node, "is not an array");
-            CoverReadArrayVariableNode arrayExpression = CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope);
+            CoverTypedExpressionNode arrayExpression = createReadArrayNode(scope, ref);
             BasicType elementType = ref.getType().getTypeOfArrayContents().getBasicType();
-            if (elementType == BasicType.UNSIGNED_LONG) {
+            if (arrayExpression instanceof CoverReadBoundArrayNode) {
+                return CoverWriteStorageElementNodeGen.create(arrayExpression, indexExpression, value, CoverType.SIGNED_INT);
+            } else if (elementType == BasicType.UNSIGNED_LONG) {
                 return CoverWriteUnsignedLongArrayElementNodeGen.create(arrayExpression, indexExpression, value);
             } else if (elementType == BasicType.SIGNED_LONG) {
                 return CoverWriteSignedLongArrayElementNodeGen.create(arrayExpression, indexExpression, value);
@@ -768,6 +1077,13 @@ public class CoverParser {
                 throw new CoverParseException(node, "field does not exist");
             }
             return CoverWritePropertyNodeGen.create(owner, value, field, memberType);
+        } else if (node instanceof CPPASTUnaryExpression) {
+            CPPASTUnaryExpression unary = (CPPASTUnaryExpression) node;
+            if (unary.getOperator() == IASTUnaryExpression.op_star) {
+                return createStoreNode(node, processExpression(scope, unary.getOperand(), null), value);
+            } else if (unary.getOperator() == IASTUnaryExpression.op_bracketedPrimary) {
+                return createWriteVariableNode(scope, unary.getOperand(), value);
+            }
         }
         throw new CoverParseException(node, "unknown destination type: " + node.getClass().getSimpleName());
     }
@@ -777,7 +1093,9 @@ public class CoverParser {
         if (!ref.getType().canAccept(value.getType())) {
             throw new CoverParseException(node, "cannot assign "+value.getType()+" to " + ref.getType());
         }
-        if (ref.getType().getBasicType() == BasicType.UNSIGNED_LONG) {
+        if (ref.isGlobal()) {
+            return CoverWriteGlobalVariableNodeGen.create(value, ref.getGlobal(), ref.getType());
+        } else if (ref.getType().getBasicType() == BasicType.UNSIGNED_LONG) {
             return CoverWriteUnsignedLongNodeGen.create(value, ref.getFrameSlot());
         } else if (ref.getType().getBasicType() == BasicType.SIGNED_LONG) {
             return CoverWriteSignedLongNodeGen.create(value, ref.getFrameSlot());
@@ -789,6 +1107,8 @@ public class CoverParser {
             return CoverWriteDoubleNodeGen.create(value, ref.getFrameSlot());
         } else if (ref.getType().getBasicType() == BasicType.FLOAT) {
             return CoverWriteFloatNodeGen.create(value, ref.getFrameSlot());
+        } else if (ref.getType().getBasicType() == BasicType.POINTER) {
+            return CoverWritePointerNodeGen.create(value, ref.getFrameSlot(), ref.getType());
         } else if (ref.getType().getBasicType() == BasicType.OBJECT) {
             return CoverWriteObjectNodeGen.create(value, ref.getFrameSlot());
         } else {
@@ -802,6 +1122,14 @@ public class CoverParser {
         CoverTypedExpressionNode readNode = processExpression(scope, node.getOperand(), null);
         CoverType type = readNode.getType();
 
+        if (operator == IASTUnaryExpression.op_star) {
+            return createLoadNode(node, readNode);
+        } else if (operator == IASTUnaryExpression.op_amper) {
+            throw new CoverParseException(node, "cannot take the address of a variable, only memory from malloc or alloca has an address");
+        } else if (operator == IASTUnaryExpression.op_sizeof) {
+            return new SLUnsignedLongLiteralNode(type.getSize(node));
+        }
+
         if (operator == IASTUnaryExpression.op_postFixIncr || operator == IASTUnaryExpression.op_prefixIncr) {
             change = 1;
         } else if (operator == IASTUnaryExpression.op_postFixDecr || operator == IASTUnaryExpression.op_prefixDecr) {
@@ -826,11 +1154,17 @@ public class CoverParser {
 
         // FIXME THIS IS WRONG HERE
         // turn (++i) into (i=i+1)
-        CoverAddUnsignedLongNode addNode = CoverAddUnsignedLongNodeGen.create(readNode, new SLUnsignedLongLiteralNode(change));
+        CoverTypedExpressionNode addNode;
+        if (type.getBasicType() == BasicType.POINTER) {
+            addNode = createPointerAddNode(node, readNode, new SLUnsignedLongLiteralNode(change));
+        } else {
+            addNode = CoverAddUnsignedLongNodeGen.create(readNode, new SLUnsignedLongLiteralNode(change));
+        }
         CoverTypedExpressionNode writeNode = createWriteVariableNode(scope, node.getOperand(), addNode);
         if (operator == IASTUnaryExpression.op_postFixIncr || operator == IASTUnaryExpression.op_postFixDecr) {
             // Use the "inverse comma" operator to return the old value of i
-            return CoverInverseCommaUnsignedLongNodeGen.create(readNode, writeNode);
+            CoverTypedExpressionNode oldValue = CoverInverseCommaUnsignedLongNodeGen.create(readNode, writeNode);
+            return type.getBasicType() == BasicType.POINTER ? CoverPointerCastNodeGen.create(oldValue, type) : oldValue;
         } else {
             return writeNode;
         }
@@ -873,44 +1207,123 @@ public class CoverParser {
             }
             
             if (declarator instanceof CPPASTArrayDeclarator) {
-                // we don't support initializers yet, so keep it empty
                 CPPASTArrayDeclarator arrayDeclarator = (CPPASTArrayDeclarator) declarator;
-                CoverTypedExpressionNode size = processExpression(scope, arrayDeclarator.getArrayModifiers()[0].getConstantExpression(), null);
+                if (arrayDeclarator.getPointerOperators().length > 0) {
+                    throw new CoverParseException(node, "arrays of pointers are not supported");
+                }
+                IASTArrayModifier[] modifiers = arrayDeclarator.getArrayModifiers();
+                IASTExpression sizeExpression = modifiers[0].getConstantExpression();
+                CoverTypedExpressionNode size = sizeExpression == null ? null : processExpression(scope, sizeExpression, null);
+                // int a[x][y][z] is stored as a flat array of x * y * z elements
+                int[] dimensions = new int[modifiers.length - 1];
+                int rowSize = 1;
+                for (int d = 1; d < modifiers.length; d++) {
+                    IASTExpression dimension = modifiers[d].getConstantExpression();
+                    CoverTypedExpressionNode dimensionSize = dimension == null ? null : processExpression(scope, dimension, null);
+                    if (!(dimensionSize instanceof SLUnsignedLongLiteralNode)) {
+                        throw new CoverParseException(node, "only the first dimension of an array can be variable");
+                    }
+                    long dimensionValue = ((SLUnsignedLongLiteralNode) dimensionSize).getValue();
+                    if (dimensionValue <= 0 || dimensionValue > Integer.MAX_VALUE / rowSize) {
+                        throw new CoverParseException(node, "invalid array dimension " + dimensionValue);
+                    }
+                    dimensions[d - 1] = (int) dimensionValue;
+                    rowSize *= dimensions[d - 1];
+                }
+                if (size != null && rowSize != 1) {
+                    size = size instanceof SLUnsignedLongLiteralNode
+                            ? new SLUnsignedLongLiteralNode(((SLUnsignedLongLiteralNode) size).getValue() * rowSize)
+                            : CoverMulUnsignedLongNodeGen.create(size, new SLUnsignedLongLiteralNode(rowSize));
+                }
                 //System.err.println(name+" declared as array of " + type.getBasicType());
-                CoverType arrayType = new CoverType(BasicType.ARRAY).setArrayType(type);
+                CoverType arrayType = new CoverType(BasicType.ARRAY).setArrayType(type).setArrayDimensions(dimensions);
+                CPPASTEqualsInitializer initializer = (CPPASTEqualsInitializer) arrayDeclarator.getInitializer();
+                int length = constantLength(size, initializer);
+                if (!scope.isGlobal() && dimensions.length == 0 && isNumber(type)
+                        && length > 0 && length <= MAX_SCALAR_REPLACED_LENGTH && hasOnlyConstantSubscripts(scope, node, name, length)) {
+                    // a small array used like a set of registers: one variable per element
+                    Object values = initializer == null ? newArray(arrayDeclarator, type, length)
+                            : createArrayTemplate(scope, arrayDeclarator, type, dimensions, size, initializer.getInitializerClause());
+                    CoverReference[] elements = new CoverReference[length];
+                    for (int k = 0; k < length; k++) {
+                        elements[k] = scope.define(node, name + "[" + k + "]", type);
+                        addInitialization(nodes, arrayDeclarator, elements[k], createLiteralNode((Number) Array.get(values, k), type));
+                    }
+                    scope.define(node, name, arrayType).setElements(elements);
+                    continue;
+                }
                 CoverReference ref = scope.define(node, name, arrayType);
-                if (type.getBasicType() == BasicType.DOUBLE) {
-                    nodes.add(new CreateLocalDoubleArrayNode(ref.getFrameSlot(), scope, size));
+                if (initializer != null) {
+                    // the initial values are computed once, here, and copied in bulk
+                    Object template = createArrayTemplate(scope, arrayDeclarator, type, dimensions, size, initializer.getInitializerClause());
+                    if (scope.isGlobal()) {
+                        addGlobalArray(arrayDeclarator, type, Array.getLength(template));
+                    } else {
+                        checkArraySize(arrayDeclarator, type, Array.getLength(template));
+                    }
+                    if (!isArrayWritten(node, name, modifiers.length)) {
+                        // a table that is never written is shared by all runs and activations
+                        scope.setHeapObject(ref.getFrameSlot(), template);
+                        scope.setArrayTemplate(template, template);
+                    } else if (scope.isGlobal()) {
+                        Object array = newArray(arrayDeclarator, type, Array.getLength(template));
+                        System.arraycopy(template, 0, array, 0, Array.getLength(template));
+                        scope.setHeapObject(ref.getFrameSlot(), array);
+                        scope.setArrayTemplate(array, template);
+                    } else {
+                        nodes.add(new CreateLocalArrayFromTemplateNode(ref.getFrameSlot(), template));
+                        localArraysDeclared = true;
+                        blockArraysDeclared = true;
+                    }
+                    continue;
+                }
+                if (size == null) {
+                    throw new CoverParseException(node, "array without size or initializer");
+                }
+                if (size instanceof SLUnsignedLongLiteralNode) {
+                    checkArraySize(arrayDeclarator, type, ((SLUnsignedLongLiteralNode) size).getValue());
+                }
+                if (scope.isGlobal()) {
+                    // global arrays exist once per program instance, so allocate them right away
+                    scope.setHeapObject(ref.getFrameSlot(), allocateGlobalArray(arrayDeclarator, type, size));
+                } else if (type.getBasicType() == BasicType.DOUBLE) {
+                    nodes.add(new CreateLocalDoubleArrayNode(ref.getFrameSlot(), size));
                 } else if (type.getBasicType() == BasicType.FLOAT) {
-                    nodes.add(new CreateLocalFloatArrayNode(ref.getFrameSlot(), scope, size));
+                    nodes.add(new CreateLocalFloatArrayNode(ref.getFrameSlot(), size));
                 } else if (type.getBasicType() == BasicType.UNSIGNED_LONG) {
-                    nodes.add(new CreateLocalUnsignedLongArrayNode(ref.getFrameSlot(), scope, size));
+                    nodes.add(new CreateLocalUnsignedLongArrayNode(ref.getFrameSlot(), size));
                 } else if (type.getBasicType() == BasicType.SIGNED_LONG) {
-                    nodes.add(new CreateLocalSignedLongArrayNode(ref.getFrameSlot(), scope, size));
+                    nodes.add(new CreateLocalSignedLongArrayNode(ref.getFrameSlot(), size));
                 } else if (type.getBasicType() == BasicType.UNSIGNED_INT) {
-                    nodes.add(new CreateLocalUnsignedIntArrayNode(ref.getFrameSlot(), scope, size));
+                    nodes.add(new CreateLocalUnsignedIntArrayNode(ref.getFrameSlot(), size));
                 } else if (type.getBasicType() == BasicType.SIGNED_INT) {
-                    nodes.add(new CreateLocalSignedIntArrayNode(ref.getFrameSlot(), scope, size));
+                    nodes.add(new CreateLocalSignedIntArrayNode(ref.getFrameSlot(), size));
                 } else {
                     throw new CoverParseException(node, "unsupported array type " + type.getBasicType());
                 }
+                localArraysDeclared |= !scope.isGlobal();
+                blockArraysDeclared |= !scope.isGlobal();
 
+            } else if (declarator instanceof CPPASTFunctionDeclarator) {
+                // a prototype, so the function can be called before its definition
+                declareFunction(node, name, processFunctionType(scope, (CPPASTFunctionDeclarator) declarator, type));
             } else if (declarator instanceof CPPASTDeclarator) {
                 CPPASTDeclarator d = (CPPASTDeclarator) declarators[i];
                 //System.err.println(name+" declared as " + frameSlot.getKind());
-                CoverReference ref = scope.define(node, name, type);
+                CoverType variableType = processPointerOperators(d, type);
+                CoverReference ref = scope.define(node, name, variableType);
                 CPPASTEqualsInitializer initializer = (CPPASTEqualsInitializer) d.getInitializer();
                 if (initializer != null) {
-                    CoverTypedExpressionNode expression = processExpression(scope, (IASTExpression) initializer.getInitializerClause(), type);
-                    nodes.add(createSimpleAssignmentNode(node, ref, expression));
+                    CoverTypedExpressionNode expression = processExpression(scope, (IASTExpression) initializer.getInitializerClause(), variableType);
+                    addInitialization(nodes, node, ref, expression);
                 } else {
                     // FIXME: initialize according to type
-                    if (type.getBasicType() == BasicType.UNSIGNED_LONG || type.getBasicType() == BasicType.SIGNED_LONG || type.getBasicType() == BasicType.UNSIGNED_INT || type.getBasicType() == BasicType.SIGNED_INT || // TODO FIXME JUST WRONG HERE
-                            type.getBasicType() == BasicType.DOUBLE ||
-                            type.getBasicType() == BasicType.FLOAT) {
-                        nodes.add(createSimpleAssignmentNode(d, ref, new SLUnsignedLongLiteralNode(0)));
-                    } else if (type.getBasicType() == BasicType.OBJECT) {
-                        nodes.add(createSimpleAssignmentNode(d, ref, new CoverCreateObjectNode(type)));
+                    if (variableType.getBasicType() == BasicType.UNSIGNED_LONG || variableType.getBasicType() == BasicType.SIGNED_LONG || variableType.getBasicType() == BasicType.UNSIGNED_INT || variableType.getBasicType() == BasicType.SIGNED_INT || // TODO FIXME JUST WRONG HERE
+                            variableType.getBasicType() == BasicType.DOUBLE ||
+                            variableType.getBasicType() == BasicType.FLOAT || variableType.getBasicType() == BasicType.POINTER) {
+                        addInitialization(nodes, d, ref, new SLUnsignedLongLiteralNode(0));
+                    } else if (variableType.getBasicType() == BasicType.OBJECT) {
+                        nodes.add(createSimpleAssignmentNode(d, ref, new CoverCreateObjectNode(variableType)));
                     } else {
                         warn(node, "unknown type; not initialized");
                     }
@@ -919,12 +1332,406 @@ public class CoverParser {
                 throw new CoverParseException(node, "unknown declarator type: " + declarators[i].getClass().getSimpleName());
             }
         }
-        if (nodes.isEmpty()) {
+        if (declarators.length == 0) {
             warn(node, "no declarators found");
         }
+        if (nodes.isEmpty()) {
+            return new CoverNopExpression();
+        }
         return new SLBlockNode(nodes.stream().toArray(SLStatementNode[]::new));
     }
 
+    /**
+     * The type of a declarator: the declared type, or a pointer to it for every <code>*</code> in
+     * front of the name.
+     */
+    private CoverType processPointerOperators(IASTDeclarator declarator, CoverType type) {
+        for (IASTPointerOperator pointerOperator : declarator.getPointerOperators()) {
+            if (!(pointerOperator instanceof IASTPointer)) {
+                throw new CoverParseException(pointerOperator, "references are not supported");
+            }
+            type = CoverType.pointerTo(type);
+            linearMemoryUsed = true;
+        }
+        return type;
+    }
+
+    private Object allocateGlobalArray(IASTNode node, CoverType type, CoverTypedExpressionNode size) {
+        if (!(size instanceof SLUnsignedLongLiteralNode)) {
+            throw new CoverParseException(node, "the size of a global array must be a constant");
+        }
+        long length = ((SLUnsignedLongLiteralNode) size).getValue();
+        addGlobalArray(node, type, length);
+        return newArray(node, type, (int) length);
+    }
+
+    /**
+     * Rejects an array with a constant size that could never be allocated within the default
+     * allocation limit, instead of failing every execution of the program.
+     */
+    private static long checkArraySize(IASTNode node, CoverType type, long length) {
+        long limit = CoverMemoryAccount.DEFAULT_LIMIT;
+        if (length < 0 || length > Integer.MAX_VALUE || length * type.getSize(node) > limit) {
+            throw new CoverParseException(node, "array of " + length + " elements exceeds the allocation limit of " + limit + " bytes");
+        }
+        return length * type.getSize(node);
+    }
+
+    private void addGlobalArray(IASTNode node, CoverType type, long length) {
+        globalArrayBytes += checkArraySize(node, type, length);
+        if (globalArrayBytes > CoverMemoryAccount.DEFAULT_LIMIT) {
+            throw new CoverParseException(node, "global arrays of " + globalArrayBytes + " bytes exceed the allocation limit of "
+                    + CoverMemoryAccount.DEFAULT_LIMIT + " bytes");
+        }
+    }
+
+    private static Object newArray(IASTNode node, CoverType type, int length) {
+        switch (type.getBasicType()) {
+            case DOUBLE: return new double[length];
+            case FLOAT: return new float[length];
+            case UNSIGNED_LONG:
+            case SIGNED_LONG: return new long[length];
+            case UNSIGNED_INT:
+            case SIGNED_INT: return new int[length];
+            default: throw new CoverParseException(node, "unsupported array type " + type.getBasicType());
+        }
+    }
+
+    /**
+     * Computes the initial contents of an array from its initializer list. The size may be left
+     * out, elements without an initializer are zero. Multi-dimensional arrays take nested lists,
+     * one per row, or a single flat list.
+     */
+    private Object createArrayTemplate(CoverScope scope, IASTNode node, CoverType type, int[] dimensions,
+            CoverTypedExpressionNode size, IASTInitializerClause initializer) {
+        if (!(initializer instanceof CPPASTInitializerList)) {
+            throw new CoverParseException(node, "an array must be initialized with a list");
+        }
+        IASTInitializerClause[] clauses = ((CPPASTInitializerList) initializer).getClauses();
+        int rowSize = 1;
+        for (int dimension : dimensions) {
+            rowSize *= dimension;
+        }
+        int length;
+        if (size == null && clauses.length > 0 && clauses[0] instanceof CPPASTInitializerList) {
+            length = clauses.length * rowSize;
+        } else if (size == null) {
+            length = (clauses.length + rowSize - 1) / rowSize * rowSize;
+        } else if (size instanceof SLUnsignedLongLiteralNode) {
+            checkArraySize(node, type, ((SLUnsignedLongLiteralNode) size).getValue());
+            length = (int) ((SLUnsignedLongLiteralNode) size).getValue();
+        } else {
+            throw new CoverParseException(node, "the size of an initialized array must be a constant");
+        }
+        Object template = newArray(node, type, length);
+        fillArrayTemplate(scope, template, 0, length, clauses, dimensions, 0);
+        return template;
+    }
+
+    /**
+     * Puts the values of an initializer list in the template, from <code>start</code> up to
+     * <code>end</code>. A nested list fills the next row of the given dimension.
+     */
+    private void fillArrayTemplate(CoverScope scope, Object template, int start, int end,
+            IASTInitializerClause[] clauses, int[] dimensions, int dimension) {
+        int position = start;
+        for (IASTInitializerClause clause : clauses) {
+            if (clause instanceof CPPASTInitializerList) {
+                if (dimension >= dimensions.length) {
+                    throw new CoverParseException(clause, "too many braces in array initializer");
+                }
+                int rowSize = 1;
+                for (int d = dimension; d < dimensions.length; d++) {
+                    rowSize *= dimensions[d];
+                }
+                if (position + rowSize > end) {
+                    throw new CoverParseException(clause, "too many initializers");
+                }
+                fillArrayTemplate(scope, template, position, position + rowSize, ((CPPASTInitializerList) clause).getClauses(), dimensions, dimension + 1);
+                position += rowSize;
+                continue;
+            }
+            if (position >= end) {
+                throw new CoverParseException(clause, "too many initializers");
+            }
+            Number value = evaluateConstant(scope, clause);
+            if (template instanceof int[]) {
+                ((int[]) template)[position] = value.intValue();
+            } else if (template instanceof long[]) {
+                ((long[]) template)[position] = value.longValue();
+            } else if (template instanceof double[]) {
+                ((double[]) template)[position] = value.doubleValue();
+            } else {
+                ((float[]) template)[position] = value.floatValue();
+            }
+            position++;
+        }
+    }
+
+    /**
+     * The value of an element of an initializer list: a literal, possibly negated.
+     */
+    private Number evaluateConstant(CoverScope scope, IASTInitializerClause clause) {
+        if (clause instanceof CPPASTLiteralExpression) {
+            Object value = processLiteral(scope, (CPPASTLiteralExpression) clause).executeGeneric(null);
+            if (value instanceof Number) {
+                return (Number) value;
+            }
+        } else if (clause instanceof CPPASTUnaryExpression) {
+            CPPASTUnaryExpression unary = (CPPASTUnaryExpression) clause;
+            if (unary.getOperator() == IASTUnaryExpression.op_bracketedPrimary || unary.getOperator() == IASTUnaryExpression.op_plus) {
+                return evaluateConstant(scope, unary.getOperand());
+            } else if (unary.getOperator() == IASTUnaryExpression.op_minus) {
+                Number value = evaluateConstant(scope, unary.getOperand());
+                if (value instanceof Double) {
+                    return -value.doubleValue();
+                } else if (value instanceof Float) {
+                    return -value.floatValue();
+                }
+                return -value.longValue();
+            }
+        }
+        throw new CoverParseException(clause, "array initializers must be constants");
+    }
+
+    /**
+     * True if the array declared by the declaration can be written anywhere in the block (or file)
+     * of the declaration. Parentheses and casts around a use are looked through. An element is
+     * only read if it is not assigned, incremented, decremented or has its address taken. The
+     * array itself, or one of its rows, is only read when it is subscripted or given to
+     * <code>sizeof</code>; any other use, like an argument of a function or a builtin (even
+     * <code>printf</code> or the source of <code>memcpy</code>) or a pointer that aliases it,
+     * counts as a write. <code>m</code>, <code>s</code> and <code>r</code> are always written,
+     * they are exchanged with the host.
+     */
+    private static boolean isArrayWritten(IASTNode declaration, String name, int rank) {
+        if (name.equals("m") || name.equals("s") || name.equals("r")) {
+            return true;
+        }
+        return containsArrayWrite(declarationBlock(declaration), name, rank);
+    }
+
+    /**
+     * The block (or file) a declaration is in: where the declared name can be used.
+     */
+    private static IASTNode declarationBlock(IASTNode declaration) {
+        IASTNode block = declaration.getParent();
+        if (block instanceof CPPASTDeclarationStatement) {
+            block = block.getParent();
+        }
+        return block;
+    }
+
+    /**
+     * The number of elements of an array with a constant size, or with its size given by the
+     * initializer list, or -1.
+     */
+    private static int constantLength(CoverTypedExpressionNode size, CPPASTEqualsInitializer initializer) {
+        if (size instanceof SLUnsignedLongLiteralNode) {
+            long value = ((SLUnsignedLongLiteralNode) size).getValue();
+            return value <= Integer.MAX_VALUE ? (int) value : -1;
+        } else if (size == null && initializer != null && initializer.getInitializerClause() instanceof CPPASTInitializerList) {
+            return ((CPPASTInitializerList) initializer.getInitializerClause()).getClauses().length;
+        }
+        return -1;
+    }
+
+    /**
+     * True if the only uses of the declared array are subscripts with a constant inside the array,
+     * so every use knows at parse time which element it refers to.
+     */
+    private boolean hasOnlyConstantSubscripts(CoverScope scope, IASTNode declaration, String name, int length) {
+        IASTNode block = declarationBlock(declaration);
+        return countDeclarations(block, name) == 1 && usesConstantSubscripts(scope, block, name, length);
+    }
+
+    private static int countDeclarations(IASTNode node, String name) {
+        int count = node instanceof IASTDeclarator && ((IASTDeclarator) node).getName().toString().equals(name) ? 1 : 0;
+        for (IASTNode child : node.getChildren()) {
+            count += countDeclarations(child, name);
+        }
+        return count;
+    }
+
+    private boolean usesConstantSubscripts(CoverScope scope, IASTNode node, String name, int length) {
+        if (node instanceof CPPASTIdExpression && node.getRawSignature().equals(name)) {
+            IASTNode parent = node.getParent();
+            if (!(parent instanceof CPPASTArraySubscriptExpression) || ((CPPASTArraySubscriptExpression) parent).getArrayExpression() != node) {
+                return false;
+            }
+            int index = constantIndex(scope, ((CPPASTArraySubscriptExpression) parent).getSubscriptExpression());
+            return index >= 0 && index < length;
+        }
+        for (IASTNode child : node.getChildren()) {
+            if (!usesConstantSubscripts(scope, child, name, length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The value of a subscript that is an integer constant, as accepted in an array initializer, or
+     * -1.
+     */
+    private int constantIndex(CoverScope scope, IASTExpression subscript) {
+        Number index;
+        try {
+            index = evaluateConstant(scope, subscript);
+        } catch (CoverParseException e) {
+            return -1;
+        }
+        if (!(index instanceof Long) || index.longValue() < 0 || index.longValue() > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return index.intValue();
+    }
+
+    private static boolean isNumber(CoverType type) {
+        BasicType basicType = type.getBasicType();
+        return basicType == BasicType.SIGNED_INT || basicType == BasicType.UNSIGNED_INT || basicType == BasicType.SIGNED_LONG
+                || basicType == BasicType.UNSIGNED_LONG || basicType == BasicType.DOUBLE || basicType == BasicType.FLOAT;
+    }
+
+    private static CoverTypedExpressionNode createLiteralNode(Number value, CoverType type) {
+        if (type.getBasicType() == BasicType.DOUBLE) {
+            return new CoverDoubleLiteralNode(value.doubleValue());
+        } else if (type.getBasicType() == BasicType.FLOAT) {
+            return new CoverFloatLiteralNode(value.floatValue());
+        }
+        return new SLUnsignedLongLiteralNode(value.longValue());
+    }
+
+    private static boolean containsArrayWrite(IASTNode node, String name, int rank) {
+        if (node instanceof CPPASTIdExpression && ((CPPASTIdExpression) node).getName().toString().equals(name)) {
+            return isWrite((CPPASTIdExpression) node, rank);
+        }
+        for (IASTNode child : node.getChildren()) {
+            if (containsArrayWrite(child, name, rank)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if a use of an array with the given number of dimensions may write it, see
+     * {@link #isArrayWritten}.
+     */
+    private static boolean isWrite(CPPASTIdExpression use, int rank) {
+        IASTNode expression = enclosingOperand(use);
+        int subscripts = 0;
+        while (expression.getParent() instanceof CPPASTArraySubscriptExpression
+                && ((CPPASTArraySubscriptExpression) expression.getParent()).getArrayExpression() == expression) {
+            expression = enclosingOperand(expression.getParent());
+            subscripts++;
+        }
+        IASTNode parent = expression.getParent();
+        if (subscripts >= rank) {
+            if (parent instanceof CPPASTBinaryExpression) {
+                CPPASTBinaryExpression binary = (CPPASTBinaryExpression) parent;
+                return isAssignment(binary.getOperator()) && binary.getOperand1() == expression;
+            } else if (parent instanceof CPPASTUnaryExpression) {
+                int operator = ((CPPASTUnaryExpression) parent).getOperator();
+                return operator == IASTUnaryExpression.op_prefixIncr || operator == IASTUnaryExpression.op_prefixDecr
+                        || operator == IASTUnaryExpression.op_postFixIncr || operator == IASTUnaryExpression.op_postFixDecr
+                        || operator == IASTUnaryExpression.op_amper;
+            }
+            return false;
+        }
+        return !(parent instanceof CPPASTUnaryExpression && ((CPPASTUnaryExpression) parent).getOperator() == IASTUnaryExpression.op_sizeof);
+    }
+
+    /**
+     * The outermost of the parentheses and casts around an expression, or the expression itself.
+     */
+    private static IASTNode enclosingOperand(IASTNode expression) {
+        IASTNode parent = expression.getParent();
+        while (parent instanceof CPPASTCastExpression
+                || (parent instanceof CPPASTUnaryExpression && ((CPPASTUnaryExpression) parent).getOperator() == IASTUnaryExpression.op_bracketedPrimary)) {
+            expression = parent;
+            parent = expression.getParent();
+        }
+        return expression;
+    }
+
+    private static boolean isAssignment(int operator) {
+        return operator == CPPASTBinaryExpression.op_assign || operator == CPPASTBinaryExpression.op_plusAssign
+                || operator == CPPASTBinaryExpression.op_minusAssign || operator == CPPASTBinaryExpression.op_multiplyAssign
+                || operator == CPPASTBinaryExpression.op_divideAssign || operator == CPPASTBinaryExpression.op_moduloAssign
+                || operator == CPPASTBinaryExpression.op_shiftLeftAssign || operator == CPPASTBinaryExpression.op_shiftRightAssign
+                || operator == CPPASTBinaryExpression.op_binaryAndAssign || operator == CPPASTBinaryExpression.op_binaryOrAssign
+                || operator == CPPASTBinaryExpression.op_binaryXorAssign;
+    }
+
+    /**
+     * The array in <code>a[i][j]</code>.
+     */
+    private static IASTExpression subscriptedArray(CPPASTArraySubscriptExpression expression) {
+        IASTExpression array = expression.getArrayExpression();
+        while (array instanceof CPPASTArraySubscriptExpression) {
+            array = ((CPPASTArraySubscriptExpression) array).getArrayExpression();
+        }
+        return array;
+    }
+
+    /**
+     * The index in the flat array of <code>a[i][j]</code>, with one subscript for every dimension
+     * of the array.
+     */
+    private CoverTypedExpressionNode createArrayIndexNode(CoverScope scope, CPPASTArraySubscriptExpression expression, CoverReference ref) {
+        int[] dimensions = ref.getType().getArrayDimensions();
+        CPPASTArraySubscriptExpression[] subscripts = new CPPASTArraySubscriptExpression[dimensions.length + 1];
+        IASTExpression current = expression;
+        for (int d = dimensions.length; d >= 0; d--) {
+            if (!(current instanceof CPPASTArraySubscriptExpression)) {
+                throw new CoverParseException(expression, "expected " + subscripts.length + " subscripts");
+            }
+            subscripts[d] = (CPPASTArraySubscriptExpression) current;
+            current = subscripts[d].getArrayExpression();
+        }
+        if (current instanceof CPPASTArraySubscriptExpression) {
+            throw new CoverParseException(expression, "expected " + subscripts.length + " subscripts");
+        }
+        CoverTypedExpressionNode index = processExpression(scope, subscripts[0].getSubscriptExpression(), null);
+        for (int d = 1; d < subscripts.length; d++) {
+            CoverTypedExpressionNode column = processExpression(scope, subscripts[d].getSubscriptExpression(), null);
+            index = CoverFlatIndexNodeGen.create(index, column, dimensions[d - 1]);
+        }
+        return index;
+    }
+
+    /**
+     * Adds the assignment of the initial value of a variable. A global that is initialized with a
+     * literal needs no code: the literal becomes the initial value of the global, which lets reads
+     * of the global be folded to a constant as long as it is not written.
+     */
+    private void addInitialization(List<SLStatementNode> nodes, IASTNode node, CoverReference ref, CoverTypedExpressionNode value) {
+        CoverTypedExpressionNode assignment = createSimpleAssignmentNode(node, ref, value);
+        if (ref.isGlobal() && isLiteral(value)) {
+            CoverGlobal global = ref.getGlobal();
+            Object literal = value.executeGeneric(null);
+            if (global.isLong() && literal instanceof Long) {
+                long initialValue = (Long) literal;
+                global.setInitialValue(ref.getType().getBasicType() == BasicType.UNSIGNED_INT ? (int) initialValue : initialValue);
+                return;
+            } else if (global.isDouble() && literal instanceof Number) {
+                global.setInitialValue(((Number) literal).doubleValue());
+                return;
+            } else if (global.isFloat() && literal instanceof Number) {
+                global.setInitialValue(((Number) literal).floatValue());
+                return;
+            }
+        }
+        nodes.add(assignment);
+    }
+
+    private static boolean isLiteral(CoverTypedExpressionNode node) {
+        return node instanceof SLUnsignedLongLiteralNode || node instanceof SLSignedLongLiteralNode ||
+                        node instanceof SLUnsignedIntLiteralNode || node instanceof SLSignedIntLiteralNode ||
+                        node instanceof CoverDoubleLiteralNode || node instanceof CoverFloatLiteralNode;
+    }
+
     private CoverType processDeclSpecifier(CoverScope scope, IASTDeclSpecifier node) {
         if (node instanceof CPPASTCompositeTypeSpecifier) {
             info(node, "found class/struct");
@@ -983,6 +1790,8 @@ public class CoverParser {
                 return CoverType.DOUBLE;
             case CPPASTSimpleDeclSpecifier.t_float:
                 return CoverType.FLOAT;
+            case CPPASTSimpleDeclSpecifier.t_void:
+                return CoverType.VOID;
             // More types are initialized in Constructor
 
             default:
@@ -1015,6 +1824,30 @@ public class CoverParser {
         System.err.println(nodeMessage(node, "info: " + message));
     }
 
+    /**
+     * The value of a decimal, octal (<code>010</code>) or hexadecimal integer literal, with or
+     * without a <code>u</code> and <code>l</code> suffix. Values up to 2<sup>64</sup>-1 are
+     * accepted, as unsigned.
+     */
+    private static long parseIntegerLiteral(CPPASTLiteralExpression literal) {
+        String value = new String(literal.getValue());
+        int end = value.length();
+        while (end > 0 && "uUlL".indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        String digits = value.substring(0, end);
+        try {
+            if (digits.startsWith("0x") || digits.startsWith("0X")) {
+                return Long.parseUnsignedLong(digits.substring(2), 16);
+            } else if (digits.length() > 1 && digits.startsWith("0")) {
+                return Long.parseUnsignedLong(digits.substring(1), 8);
+            }
+            return Long.parseUnsignedLong(digits);
+        } catch (NumberFormatException e) {
+            throw new CoverParseException(literal, "invalid integer literal " + value);
+        }
+    }
+
     // TODO FIXME: Make sure to support all the signed unsigned literals here
     private CoverTypedExpressionNode processLiteral(CoverScope scope, CPPASTLiteralExpression y) {
         if (y.getKind() == IASTLiteralExpression.lk_string_literal) {
@@ -1022,14 +1855,7 @@ public class CoverParser {
             String noQuotes = v.substring(1, v.length() - 1).replace("\\n", "\n");
             return new SLStringLiteralNode(noQuotes);
         } else if (y.getKind() == IASTLiteralExpression.lk_integer_constant) {
-            String stringValue = new String(y.getValue());
-            final long longValue;
-            if (stringValue.startsWith("0x")) {
-                longValue = Long.parseLong(stringValue.substring(2), 16);
-            } else {
-                longValue = Long.parseLong(stringValue);
-            }
-            return new SLUnsignedLongLiteralNode(longValue);
+            return new SLUnsignedLongLiteralNode(parseIntegerLiteral(y));
         } else if (y.getKind() == IASTLiteralExpression.lk_float_constant) { // fixme special care
             return new CoverDoubleLiteralNode(Double.parseDouble(new String(y.getValue())));
         } else {
@@ -1059,8 +1885,8 @@ public class CoverParser {
             if (frameSlot_m == null || frameSlot_s == null) throw new CoverParseException(node, "no frameslot for s or m found");
             if (ref_m.getType().getBasicType() != BasicType.ARRAY || ref_s.getType().getBasicType() != BasicType.ARRAY)
                 throw new CoverParseException(node, "s or m is not an array");
-            CoverReadArrayVariableNode arrayExpression_m = CoverReadArrayVariableNodeGen.create(ref_m.getFrameSlot(), scope);
-            CoverReadArrayVariableNode arrayExpression_s = CoverReadArrayVariableNodeGen.create(ref_s.getFrameSlot(), scope);
+            CoverTypedExpressionNode arrayExpression_m = createReadArrayNode(scope, ref_m);
+            CoverTypedExpressionNode arrayExpression_s = createReadArrayNode(scope, ref_s);
             return CoverPullTheRestBuiltinNodeGen.create(arrayExpression_m, arrayExpression_s);
         } else if ("puts".equals(rawName)) {
             NodeFactory<SLPrintlnBuiltin> printlnBuiltinFactory = SLPrintlnBuiltinFactory.getInstance();
@@ -1068,7 +1894,33 @@ public class CoverParser {
         }  else if ("dump_vars".equals(rawName)) {
             return CoverDumpVarsBuiltinNodeGen.create(scope);
         } else if ("sync_r".equals(rawName)) {
-            return CoverSyncRBuiltinNodeGen.create(scope);
+            CoverReference ref_r = scope.findReference("r");
+            if (ref_r == null || ref_r.getType().getBasicType() != BasicType.ARRAY) {
+                // nothing to sync
+                return new CoverNopExpression();
+            }
+            return CoverSyncRBuiltinNodeGen.create(createReadArrayNode(scope, ref_r));
+        } else if ("malloc".equals(rawName)) {
+            linearMemoryUsed = true;
+            return CoverMallocBuiltinNodeGen.create(argumentArray[0]);
+        } else if ("calloc".equals(rawName)) {
+            linearMemoryUsed = true;
+            return CoverCallocBuiltinNodeGen.create(argumentArray[0], argumentArray[1]);
+        } else if ("alloca".equals(rawName)) {
+            linearMemoryUsed = true;
+            localArraysDeclared = true;
+            return CoverAllocaBuiltinNodeGen.create(argumentArray[0]);
+        } else if ("free".equals(rawName)) {
+            return CoverFreeBuiltinNodeGen.create(argumentArray[0]);
+        } else if ("memset".equals(rawName)) {
+            checkBulkOperands(node, argumentArray, 1);
+            return CoverMemsetBuiltinNodeGen.create(argumentArray[0], argumentArray[1], argumentArray[2], argumentArray[0].getType());
+        } else if ("memcpy".equals(rawName) || "memmove".equals(rawName)) {
+            checkBulkOperands(node, argumentArray, 2);
+            return CoverMemcpyBuiltinNodeGen.create(argumentArray[0], argumentArray[1], argumentArray[2], argumentArray[0].getType());
+        } else if ("memcmp".equals(rawName)) {
+            checkBulkOperands(node, argumentArray, 2);
+            return CoverMemcmpBuiltinNodeGen.create(argumentArray[0], argumentArray[1], argumentArray[2]);
         } else if ("printf".equals(rawName)) {
             return new CoverPrintfBuiltin(argumentArray);
         } else if ("fwrite".equals(rawName)) {
@@ -1131,36 +1983,75 @@ public class CoverParser {
             return CoverCheckPowBuiltinNodeGen.create(argumentArray[0], argumentArray[1], argumentArray[2], argumentArray[3]);
         } else {
             CoverTypedExpressionNode function = processExpression(scope, functionCall.getFunctionNameExpression(), CoverType.DOUBLE);
-            return new SLInvokeNode(function, argumentArray);
+            CoverType signature = function.getType();
+            if (!(function instanceof CoverFunctionLiteralNode) || signature.getFunctionArguments() == null) {
+                return new SLInvokeNode(function, argumentArray);
+            }
+            CoverType[] parameterTypes = signature.getFunctionArguments();
+            if (argumentArray.length != parameterTypes.length) {
+                throw new CoverParseException(node, rawName + " takes " + parameterTypes.length + " arguments, not " + argumentArray.length);
+            }
+            for (int i = 0; i < argumentArray.length; i++) {
+                argumentArray[i] = convert(node, argumentArray[i], parameterTypes[i]);
+            }
+            // C functions cannot be redefined: bind the call to its target, see parseRaw
+            CoverDirectCallNode call = new CoverDirectCallNode(((CoverFunctionLiteralNode) function).getFunction(), argumentArray,
+                    signature.getFunctionReturn());
+            directCalls.put(call, node);
+            return call;
         }
     }
 
+    /**
+     * Checks the arguments of a bulk memory builtin: the first <code>blocks</code> arguments must
+     * all be arrays with elements of the same size and kind, or all be pointers, and the last one
+     * is the size in bytes.
+     */
+    private void checkBulkOperands(IASTNode node, CoverTypedExpressionNode[] arguments, int blocks) {
+        if (arguments.length != 3) {
+            throw new CoverParseException(node, "expected 3 arguments");
+        }
+        CoverType first = arguments[0].getType();
+        for (int i = 0; i < blocks; i++) {
+            CoverType type = arguments[i].getType();
+            if (type.getBasicType() != BasicType.ARRAY && type.getBasicType() != BasicType.POINTER) {
+                throw new CoverParseException(node, "argument " + (i + 1) + " is not an array or a pointer");
+            }
+            if (type.getBasicType() != first.getBasicType()) {
+                throw new CoverParseException(node, "cannot mix arrays and pointers");
+            }
+            if (type.getBasicType() == BasicType.ARRAY && !sameStorage(first.getTypeOfArrayContents(), type.getTypeOfArrayContents())) {
+                throw new CoverParseException(node, "arrays have different element types");
+            }
+        }
+    }
+
+    /**
+     * True if arrays of the two element types are stored the same way, so that their contents can
+     * be copied and compared as they are.
+     */
+    private static boolean sameStorage(CoverType a, CoverType b) {
+        BasicType x = a.getBasicType();
+        BasicType y = b.getBasicType();
+        boolean xInt = x == BasicType.SIGNED_INT || x == BasicType.UNSIGNED_INT;
+        boolean yInt = y == BasicType.SIGNED_INT || y == BasicType.UNSIGNED_INT;
+        boolean xLong = x == BasicType.SIGNED_LONG || x == BasicType.UNSIGNED_LONG;
+        boolean yLong = y == BasicType.SIGNED_LONG || y == BasicType.UNSIGNED_LONG;
+        return x == y || (xInt && yInt) || (xLong && yLong);
+    }
+
     private CoverTypedExpressionNode processId(CoverScope scope, CPPASTIdExpression id) {
         String name = id.getName().getRawSignature();
         CoverReference ref = scope.findReference(name);
-        if (ref != null) {
+        if (ref != null && ref.isGlobal() && ref.getType().getBasicType() != BasicType.ARRAY) {
+            return CoverReadGlobalVariableNodeGen.create(ref.getGlobal(), ref.getType());
+        } else if (ref != null && ref.getFrameSlot() != null && ref.getType().getBasicType().equals(BasicType.ARRAY)) {
+            return createReadArrayNode(scope, ref);
+        } else if (ref != null) {
             if (ref.getFrameSlot() != null) {
-                if (ref.getType().getBasicType().equals(BasicType.UNSIGNED_LONG)) {
-                    return CoverReadUnsignedLongVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.SIGNED_LONG)) {
-                    return CoverReadSignedLongVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.UNSIGNED_INT)) {
-                    return CoverReadUnsignedIntVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.SIGNED_INT)) {
-                    return CoverReadSignedIntVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.DOUBLE)) {
-                    return CoverReadDoubleVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.FLOAT)) {
-                    return CoverReadFloatVariableNodeGen.create(ref.getFrameSlot());
-                } else if (ref.getType().getBasicType().equals(BasicType.ARRAY)) {
-                    return CoverReadArrayVariableNodeGen.create(ref.getFrameSlot(), scope);
-                } else if (ref.getType().getBasicType().equals(BasicType.OBJECT)) {
-                    return CoverReadObjectVariableNodeGen.create(ref.getType(), ref.getFrameSlot());
-                } else {
-                    throw new CoverParseException(id, "unsupported variable read " + ref.getType());
-                }
+                return createReadVariableNode(id, ref);
             } else if (ref.getFunction() != null){
-                return new CoverFunctionLiteralNode(ref.getFunction());
+                return new CoverFunctionLiteralNode(ref.getFunction(), ref.getType());
             } else {
                 throw new CoverParseException(id, "not a variable or function");
             }
@@ -1169,6 +2060,41 @@ public class CoverParser {
         }
     }
 
+    private CoverTypedExpressionNode createReadArrayNode(CoverScope scope, CoverReference ref) {
+        Object array = scope.getHeapObject(ref.getFrameSlot());
+        if (array instanceof int[] && ref == fileScope.findReference("s")) {
+            return CoverReadBoundArrayNodeGen.create(array);
+        } else if (array != null) {
+            // global array or constant table, allocated while parsing
+            return CoverReadArrayVariableNodeGen.create(array);
+        } else {
+            // local array, allocated for every activation
+            return CoverReadObjectVariableNodeGen.create(CoverType.ARRAY, ref.getFrameSlot());
+        }
+    }
+
+    private CoverTypedExpressionNode createReadVariableNode(IASTNode id, CoverReference ref) {
+        if (ref.getType().getBasicType().equals(BasicType.UNSIGNED_LONG)) {
+            return CoverReadUnsignedLongVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.SIGNED_LONG)) {
+            return CoverReadSignedLongVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.UNSIGNED_INT)) {
+            return CoverReadUnsignedIntVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.SIGNED_INT)) {
+            return CoverReadSignedIntVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.DOUBLE)) {
+            return CoverReadDoubleVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.FLOAT)) {
+            return CoverReadFloatVariableNodeGen.create(ref.getFrameSlot());
+        } else if (ref.getType().getBasicType().equals(BasicType.POINTER)) {
+            return CoverReadPointerVariableNodeGen.create(ref.getFrameSlot(), ref.getType());
+        } else if (ref.getType().getBasicType().equals(BasicType.OBJECT)) {
+            return CoverReadObjectVariableNodeGen.create(ref.getType(), ref.getFrameSlot());
+        } else {
+            throw new CoverParseException(id, "unsupported variable read " + ref.getType());
+        }
+    }
+
     private CoverTypedExpressionNode processFunctionDefinition(CoverScope scope, CPPASTFunctionDefinition node) {
         /*
            -CPPASTFunctionDefinition (offset: 1,81) -> void 
@@ -1181,26 +2107,34 @@ public class CoverParser {
                    -CPPASTName (offset: 18,5) -> count
              -CPPASTCompoundStatement (offset: 25,57) -> {
          */
-        CoverScope newScope = new CoverScope(scope);
+        // every function gets its own frame descriptor
+        CoverScope newScope = new CoverScope(scope, new FrameDescriptor());
         CPPASTFunctionDeclarator declarator = (CPPASTFunctionDeclarator) node.getDeclarator();
         ICPPASTParameterDeclaration[] parameters = declarator.getParameters();
+        CoverType functionType = processFunctionType(scope, declarator, processDeclSpecifier(scope, node.getDeclSpecifier()));
+        CoverType returnType = functionType.getFunctionReturn();
         SLStatementNode[] readArgumentsStatements = new SLStatementNode[parameters.length];
         for (int i = 0;i<parameters.length;i++) {
             ICPPASTParameterDeclaration parameter = parameters[i];
             String name = parameter.getDeclarator().getName().getRawSignature();
-            CoverType type = processDeclSpecifier(scope, parameter.getDeclSpecifier());
+            CoverType type = functionType.getFunctionArguments()[i];
             CoverReference ref = newScope.define(node, name, type);
             
-            // copy to local var in the prologue
+            // copy to local var in the prologue, argument 0 is the CoverExecution
+            final int argumentIndex = i + 1;
             final CoverTypedExpressionNode readArg;
             if (type.getBasicType() == BasicType.UNSIGNED_LONG) {
-                readArg = CoverReadUnsignedLongArgumentNodeGen.create(i);
-            } else if (type.getBasicType() == BasicType.SIGNED_LONG) {
-                readArg = CoverReadSignedLongArgumentNodeGen.create(i);
+                readArg = CoverReadUnsignedLongArgumentNodeGen.create(argumentIndex);
+            } else if (type.getBasicType() == BasicType.SIGNED_LONG || type.getBasicType() == BasicType.POINTER) {
+                readArg = CoverReadSignedLongArgumentNodeGen.create(argumentIndex);
             } else if (type.getBasicType() == BasicType.UNSIGNED_INT) {
-                readArg = CoverReadUnsignedIntArgumentNodeGen.create(i);
+                readArg = CoverReadUnsignedIntArgumentNodeGen.create(argumentIndex);
             } else if (type.getBasicType() == BasicType.SIGNED_INT) {
-                readArg = CoverReadSignedIntArgumentNodeGen.create(i);
+                readArg = CoverReadSignedIntArgumentNodeGen.create(argumentIndex);
+            } else if (type.getBasicType() == BasicType.DOUBLE) {
+                readArg = CoverReadDoubleArgumentNodeGen.create(argumentIndex);
+            } else if (type.getBasicType() == BasicType.FLOAT) {
+                readArg = CoverReadFloatArgumentNodeGen.create(argumentIndex);
             } else {
                 throw new CoverParseException(node, "unsupported argument type");
             }
@@ -1210,27 +2144,78 @@ public class CoverParser {
         
         SLBlockNode readArgumentsNode = new SLBlockNode(readArgumentsStatements);
         
+        // the function is declared before its body is parsed, so it can call itself
+        String functionName = declarator.getName().toString();
+        SLFunction function = declareFunction(node, functionName, functionType);
+        if (isDefined(function)) {
+            throw new CoverParseException(node, "function " + functionName + " is already defined");
+        }
+        
+        // the result is returned through a typed slot, see CoverReturnNode
+        returnReference = returnType.getBasicType() == BasicType.VOID ? null : newScope.define(node, "<return>", returnType);
         IASTStatement s = node.getBody();
-        SLStatementNode blockNode = processStatement(newScope, s);
+        localArraysDeclared = false;
+        SLStatementNode blockNode;
+        try {
+            blockNode = processStatement(newScope, s);
+        } finally {
+            returnReference = null;
+        }
         SLBlockNode wrappedBodyNode = new SLBlockNode(new SLStatementNode[] {readArgumentsNode, blockNode});
-        final SLFunctionBodyNode functionBodyNode = new SLFunctionBodyNode(wrappedBodyNode);
+        CoverReference returnSlot = newScope.findReference("<return>");
+        final SLFunctionBodyNode functionBodyNode = new SLFunctionBodyNode(wrappedBodyNode,
+                returnSlot == null ? null : createReadVariableNode(node, returnSlot));
         functionBodyNode.addRootTag();
+        // local arrays are released when the function returns
+        SLExpressionNode bodyNode = localArraysDeclared ? new CoverArenaScopeNode(functionBodyNode) : functionBodyNode;
         
         // we will now add code to read the arguments into the frame
         // load local variables from arguments
         
-        String functionName = declarator.getName().toString();
-        // for int main() {} we create a main = (int)(){} assignment
-        SLFunction function = new SLFunction(functionName);
-        SLRootNode rootNode = new SLRootNode(newScope.getFrameDescriptor(), functionBodyNode, null, functionName);
+        SLRootNode rootNode = new SLRootNode(newScope.getFrameDescriptor(), bodyNode, null, functionName);
         RootCallTarget callTarget = Truffle.getRuntime().createCallTarget(rootNode);
         function.setCallTarget(callTarget);
-        
-        CoverReference reference = scope.define(node, functionName, new CoverType(BasicType.FUNCTION));
-        reference.setFunction(function);
         return new CoverNopExpression();
     }
 
+    /**
+     * The type of a function: its parameter types and its return type, the declared type with the
+     * pointer operators of the declarator applied.
+     */
+    private CoverType processFunctionType(CoverScope scope, CPPASTFunctionDeclarator declarator, CoverType declaredType) {
+        ICPPASTParameterDeclaration[] parameters = declarator.getParameters();
+        CoverType[] parameterTypes = new CoverType[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            ICPPASTParameterDeclaration parameter = parameters[i];
+            parameterTypes[i] = processPointerOperators(parameter.getDeclarator(), processDeclSpecifier(scope, parameter.getDeclSpecifier()));
+        }
+        return new CoverType(BasicType.FUNCTION).setFunctionArguments(parameterTypes)
+                .setFunctionReturn(processPointerOperators(declarator, declaredType));
+    }
+
+    /**
+     * Declares a function in the file scope, or returns the function declared by an earlier
+     * prototype, which must have the same signature.
+     */
+    private SLFunction declareFunction(IASTNode node, String name, CoverType type) {
+        CoverReference ref = fileScope.findReference(name);
+        if (ref == null) {
+            SLFunction function = new SLFunction(name);
+            fileScope.define(node, name, type).setFunction(function);
+            return function;
+        }
+        CoverType declared = ref.getType();
+        if (ref.getFunction() == null || !Arrays.equals(declared.getFunctionArguments(), type.getFunctionArguments())
+                || !declared.getFunctionReturn().equals(type.getFunctionReturn())) {
+            throw new CoverParseException(node, "conflicting declaration of " + name);
+        }
+        return ref.getFunction();
+    }
+
+    private static boolean isDefined(SLFunction function) {
+        return !(function.getCallTarget().getRootNode() instanceof SLUndefinedFunctionRootNode);
+    }
+
     private SourceSection createSourceSectionForNode(String identifier, IASTNode expression) {
         IASTFileLocation fileLocation = expression.getFileLocation();
         int charIndex = fileLocation.getNodeOffset();
@@ -1238,14 +2223,26 @@ public class CoverParser {
         return source.createSection(identifier, charIndex, length);
     }
 
-    private SLBlockNode processCompoundStatement(CoverScope scope, IASTStatement s) {
+    /**
+     * A block that declares local arrays releases them when it is left, see
+     * {@link CoverBlockArenaScopeNode}.
+     */
+    private SLStatementNode processCompoundStatement(CoverScope scope, IASTStatement s) {
         IASTCompoundStatement compound = (IASTCompoundStatement) s;
         List<SLStatementNode> statements = new ArrayList<SLStatementNode>();
-        for (IASTStatement statement : compound.getStatements()) {
-            statements.add(processStatement(scope, statement));
+        boolean outerArraysDeclared = blockArraysDeclared;
+        blockArraysDeclared = false;
+        boolean arraysDeclared;
+        try {
+            for (IASTStatement statement : compound.getStatements()) {
+                statements.add(processStatement(scope, statement));
+            }
+        } finally {
+            arraysDeclared = blockArraysDeclared;
+            blockArraysDeclared = outerArraysDeclared;
         }
         SLBlockNode blockNode = new SLBlockNode(statements.toArray(new SLStatementNode[statements.size()]));
-        return blockNode;
+        return arraysDeclared ? new CoverBlockArenaScopeNode(blockNode) : blockNode;
     }
 
     static String nodeMessage(IASTNode node, String message) {
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Allocates the local arrays of function activations. Local arrays live exactly as long as the
+ * block that declares them, so the arena is a stack: a function or block {@link #mark() marks} the
+ * top on entry and {@link #release(int) releases} everything above the mark when it is left.
+ * <p>
+ * Released buffers are kept, up to {@link #RETAINED_LIMIT} bytes. When a later allocation at the
+ * same position asks for an array of the same type and length, the old buffer is cleared and
+ * handed out again, so running the same program over and over allocates nothing once the first
+ * run is done. Buffers over the limit are dropped, the ones at the deepest positions first.
+ * <p>
+ * The bytes of the arrays in use are counted in the {@link CoverMemoryAccount memory account} of
+ * the instance; an allocation over the limit throws {@link CoverMemoryLimitExceededException}.
+ */
+public final class CoverArena {
+    /**
+     * The most bytes of released buffers an arena keeps for reuse, set with
+     * <code>cover.arena.retainedLimit</code>; 4 MB by default.
+     */
+    public static final long RETAINED_LIMIT = Long.getLong("cover.arena.retainedLimit", 4L * 1024 * 1024);
+
+    private final CoverMemoryAccount account;
+    private Object[] buffers = new Object[16];
+    /* bytesBelow[i] is the size of the arrays below position i */
+    private long[] bytesBelow = new long[16];
+    private int top;
+    /* the bytes of the arrays in use, buffers[0, top) */
+    private long bytes;
+    /* buffers[0, end) may be set; bufferBytes is their size, in use or not */
+    private int end;
+    private long bufferBytes;
+
+    public CoverArena(CoverMemoryAccount account) {
+        this.account = account;
+    }
+
+    public int mark() {
+        return top;
+    }
+
+    public void release(int mark) {
+        if (mark < top) {
+            account.free(bytes - bytesBelow[mark]);
+            bytes = bytesBelow[mark];
+        }
+        top = mark;
+        while (bufferBytes - bytes > RETAINED_LIMIT && end > top) {
+            end--;
+            if (buffers[end] != null) {
+                bufferBytes -= sizeOf(buffers[end]);
+                buffers[end] = null;
+            }
+        }
+    }
+
+    /**
+     * The bytes of the released buffers kept for reuse, at most {@link #RETAINED_LIMIT}. They are
+     * not counted in the memory account, which only counts the arrays in use.
+     */
+    public long getRetainedBytes() {
+        return bufferBytes - bytes;
+    }
+
+    /**
+     * The length of a local array of the given size, which is an error if it is negative or too
+     * large for a Java array.
+     */
+    public static int checkLength(Node node, long length) {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new CoverRuntimeException(node, "array size " + length + " out of range");
+        }
+        return (int) length;
+    }
+
+    private static long sizeOf(Object buffer) {
+        long elementSize = buffer instanceof long[] || buffer instanceof double[] ? 8 : 4;
+        return java.lang.reflect.Array.getLength(buffer) * elementSize;
+    }
+
+    /**
+     * Counts an array of the given size, which is about to be allocated at the top.
+     */
+    private void account(int length, int elementSize) {
+        if (length < 0) {
+            throw new NegativeArraySizeException(String.valueOf(length));
+        }
+        long size = (long) length * elementSize;
+        account.allocate(size);
+        if (top == buffers.length) {
+            buffers = Arrays.copyOf(buffers, buffers.length * 2);
+            bytesBelow = Arrays.copyOf(bytesBelow, bytesBelow.length * 2);
+        }
+        bytesBelow[top] = bytes;
+        bytes += size;
+    }
+
+    @TruffleBoundary
+    public int[] allocateInts(int length) {
+        account(length, 4);
+        Object buffer = reusable(int[].class, length);
+        if (buffer != null) {
+            Arrays.fill((int[]) buffer, 0);
+            return (int[]) buffer;
+        }
+        return push(new int[length]);
+    }
+
+    @TruffleBoundary
+    public long[] allocateLongs(int length) {
+        account(length, 8);
+        Object buffer = reusable(long[].class, length);
+        if (buffer != null) {
+            Arrays.fill((long[]) buffer, 0);
+            return (long[]) buffer;
+        }
+        return push(new long[length]);
+    }
+
+    @TruffleBoundary
+    public double[] allocateDoubles(int length) {
+        account(length, 8);
+        Object buffer = reusable(double[].class, length);
+        if (buffer != null) {
+            Arrays.fill((double[]) buffer, 0);
+            return (double[]) buffer;
+        }
+        return push(new double[length]);
+    }
+
+    @TruffleBoundary
+    public float[] allocateFloats(int length) {
+        account(length, 4);
+        Object buffer = reusable(float[].class, length);
+        if (buffer != null) {
+            Arrays.fill((float[]) buffer, 0);
+            return (float[]) buffer;
+        }
+        return push(new float[length]);
+    }
+
+    /**
+     * Allocates a copy of a template array (an <code>int[]</code>, <code>long[]</code>,
+     * <code>double[]</code> or <code>float[]</code>).
+     */
+    @TruffleBoundary
+    public Object allocateCopy(Object template) {
+        int length = java.lang.reflect.Array.getLength(template);
+        account(length, template instanceof long[] || template instanceof double[] ? 8 : 4);
+        Object buffer = reusable(template.getClass(), length);
+        if (buffer == null) {
+            buffer = push(java.lang.reflect.Array.newInstance(template.getClass().getComponentType(), length));
+        }
+        System.arraycopy(template, 0, buffer, 0, length);
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer at the top if it has the requested type and length, and moves the top
+     * past it.
+     */
+    private Object reusable(Class<?> type, int length) {
+        if (top < buffers.length) {
+            Object buffer = buffers[top];
+            if (buffer != null && buffer.getClass() == type && java.lang.reflect.Array.getLength(buffer) == length) {
+                top++;
+                return buffer;
+            }
+        }
+        return null;
+    }
+
+    private <T> T push(T buffer) {
+        if (buffers[top] != null) {
+            bufferBytes -= sizeOf(buffers[top]);
+        }
+        buffers[top++] = buffer;
+        bufferBytes += sizeOf(buffer);
+        end = Math.max(end, top);
+        return buffer;
+    }
+}
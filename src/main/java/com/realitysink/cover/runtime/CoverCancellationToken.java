@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets another thread stop running executions. Executions started with a token check it at every
+ * loop back-edge and function entry and unwind with a {@link CoverCancelledException} once it is
+ * cancelled.
+ */
+public final class CoverCancellationToken {
+    private static ScheduledExecutorService timer;
+
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private ScheduledFuture<?> timeout;
+
+    /**
+     * Returns a token that cancels itself after the given number of milliseconds. Call
+     * {@link #dispose()} when the execution is done to stop the timer.
+     */
+    public static CoverCancellationToken withTimeout(long millis) {
+        final CoverCancellationToken token = new CoverCancellationToken();
+        token.timeout = getTimer().schedule(new Runnable() {
+            public void run() {
+                token.timedOut = true;
+                token.cancel();
+            }
+        }, millis, TimeUnit.MILLISECONDS);
+        return token;
+    }
+
+    private static synchronized ScheduledExecutorService getTimer() {
+        if (timer == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "cover-timeout");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            timer = executor;
+        }
+        return timer;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * True if the token was cancelled because its timeout expired.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public void dispose() {
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+/**
+ * Thrown at a loop back-edge or function entry when the {@link CoverCancellationToken} of the
+ * execution has been cancelled. It unwinds the whole program and is caught by the entry node,
+ * which marks the result as {@link com.realitysink.cover.ComputationResult#cancelled cancelled}.
+ * Since the exception is stateless, a {@link #SINGLETON} is used.
+ */
+public final class CoverCancelledException extends ControlFlowException {
+
+    public static final CoverCancelledException SINGLETON = new CoverCancelledException();
+
+    private static final long serialVersionUID = -4721560964182045329L;
+
+    /* Prevent instantiation from outside. */
+    private CoverCancelledException() {
+    }
+}
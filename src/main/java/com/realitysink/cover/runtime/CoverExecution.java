@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.nio.IntBuffer;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.Frame;
+import com.realitysink.cover.ComputationResult;
+
+/**
+ * The state of a single execution of a Cover program: the {@link ComputationResult} it reads its
+ * inputs from and writes its results to. Every Cover function receives the execution as argument
+ * 0, so builtins can reach it without any global state and independent executions can run
+ * concurrently.
+ */
+public final class CoverExecution {
+    /**
+     * Key of the engine configuration entry that carries the executions into {@link SLContext}:
+     * a <code>CoverExecution[]</code>, or an <code>AtomicReference&lt;CoverExecution[]&gt;</code>
+     * for an engine that evaluates the program again for every batch.
+     */
+    public static final String CONFIG_KEY = "execution";
+
+    /** Index of the execution in the arguments array of every Cover function. */
+    public static final int ARGUMENT_INDEX = 0;
+
+    /** Budget of an execution that is not metered. */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * Valid as long as no execution with a budget has been created. While it holds, metering is
+     * compiled out entirely.
+     */
+    private static final Assumption UNMETERED = Truffle.getRuntime().createAssumption("no execution is metered");
+
+    /**
+     * Valid as long as no execution with a cancellation token has been created. While it holds,
+     * cancellation checks are compiled out entirely.
+     */
+    private static final Assumption UNCANCELLABLE = Truffle.getRuntime().createAssumption("no execution is cancellable");
+
+    /**
+     * Valid as long as no execution has tracked the changes to its storage. While it holds,
+     * storage writes do not even look for a tracker.
+     */
+    private static final Assumption UNTRACKED = Truffle.getRuntime().createAssumption("no storage is tracked");
+
+    private final ComputationResult result;
+    private final CoverCancellationToken cancellationToken;
+    private final long memoryLimit;
+    private long budget;
+    private boolean completed;
+    private Object returnValue;
+    private CoverArena arena;
+    private CoverMemory memory;
+    private CoverMemoryAccount memoryAccount;
+    private Object boundS;
+    private CoverStorageTracker storageTracker;
+
+    public CoverExecution(ComputationResult result) {
+        this(result, UNLIMITED);
+    }
+
+    public CoverExecution(ComputationResult result, long budget) {
+        this(result, budget, null);
+    }
+
+    public CoverExecution(ComputationResult result, long budget, CoverCancellationToken cancellationToken) {
+        this(result, budget, cancellationToken, CoverMemoryAccount.DEFAULT_LIMIT);
+    }
+
+    public CoverExecution(ComputationResult result, long budget, CoverCancellationToken cancellationToken, long memoryLimit) {
+        this.result = result;
+        this.budget = budget;
+        this.cancellationToken = cancellationToken;
+        this.memoryLimit = memoryLimit;
+        if (budget != UNLIMITED) {
+            UNMETERED.invalidate();
+        }
+        if (cancellationToken != null) {
+            UNCANCELLABLE.invalidate();
+        }
+    }
+
+    /**
+     * The computation result of this execution, or null when the program is run without one (from
+     * the command line).
+     */
+    public ComputationResult getResult() {
+        return result;
+    }
+
+    /**
+     * True once <code>main_proxy</code> returned normally for this execution.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Object getReturnValue() {
+        return returnValue;
+    }
+
+    public void setReturnValue(Object returnValue) {
+        this.returnValue = returnValue;
+        this.completed = true;
+    }
+
+    /**
+     * The arena the local arrays of this execution are allocated from, the one of the program
+     * instance the execution runs on.
+     */
+    public CoverArena getArena() {
+        return arena;
+    }
+
+    public void setArena(CoverArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * The linear memory of the program instance the execution runs on, null if the program does not
+     * use pointers.
+     */
+    public CoverMemory getMemory() {
+        return memory;
+    }
+
+    public void setMemory(CoverMemory memory) {
+        this.memory = memory;
+    }
+
+    /**
+     * The most bytes of arrays, objects and linear memory the execution may have in use at once.
+     */
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * The memory account of the program instance the execution runs on.
+     */
+    public CoverMemoryAccount getMemoryAccount() {
+        return memoryAccount;
+    }
+
+    public void setMemoryAccount(CoverMemoryAccount memoryAccount) {
+        this.memoryAccount = memoryAccount;
+    }
+
+    /**
+     * Stores the most bytes the execution had in use in the computation result.
+     */
+    public void publishPeakBytes() {
+        if (result != null && memoryAccount != null) {
+            result.peakBytes = memoryAccount.getPeak();
+        }
+    }
+
+    /**
+     * Binds the <code>s</code> array of the program directly to the storage of the computation
+     * result, so it is neither copied in by <code>pull_the_rest</code> nor out after the run. The
+     * storage is only bound if its length matches the declaration in the program. <code>m</code> is
+     * never bound: it stays a copy, so the program cannot change the input of the host.
+     */
+    public void bind(CoverProgramInstance instance) {
+        boundS = null;
+        storageTracker = null;
+        if (result == null) {
+            return;
+        }
+        if (result.storageBuffer != null) {
+            if (result.storageBuffer.limit() == instance.getSLength()) {
+                boundS = result.storageBuffer;
+            }
+        } else if (result.storage != null && result.storage.length == instance.getSLength()) {
+            boundS = result.storage;
+        }
+        if (boundS != null && result.trackStorageChanges) {
+            UNTRACKED.invalidate();
+            storageTracker = new CoverStorageTracker(instance.getSLength(), result.storageDigest);
+        }
+    }
+
+    /**
+     * The tracker of the storage of the execution of the given frame, or null if its changes are
+     * not tracked.
+     */
+    public static CoverStorageTracker getStorageTracker(Frame frame) {
+        if (UNTRACKED.isValid()) {
+            return null;
+        }
+        return fromFrame(frame).storageTracker;
+    }
+
+    /**
+     * Stores the changes to the storage in the computation result, if they were tracked.
+     */
+    public void publishStorageChanges() {
+        if (storageTracker != null) {
+            result.changedIndices = storageTracker.getChangedIndices();
+            result.storageDigest = storageTracker.getDigest(boundS);
+        }
+    }
+
+    /**
+     * The buffer <code>s</code> is bound to (an <code>int[]</code> or an {@link IntBuffer}), or
+     * null if the program uses its own array.
+     */
+    public Object getBoundS() {
+        return boundS;
+    }
+
+    public static CoverExecution fromFrame(Frame frame) {
+        return (CoverExecution) frame.getArguments()[ARGUMENT_INDEX];
+    }
+
+    /**
+     * The remaining budget. Every loop iteration, every call and every statement executed costs
+     * one unit; a block charges for all its statements at once.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Charges the execution of the given frame, throwing {@link CoverBudgetExhaustedException} once
+     * its budget is used up. Compiles to a decrement and a branch, or to nothing at all if no
+     * execution has ever been metered.
+     */
+    public static void charge(Frame frame, long cost) {
+        if (!UNMETERED.isValid()) {
+            fromFrame(frame).charge(cost);
+        }
+    }
+
+    private void charge(long cost) {
+        budget -= cost;
+        if (budget < 0) {
+            CompilerDirectives.transferToInterpreter();
+            throw CoverBudgetExhaustedException.SINGLETON;
+        }
+    }
+
+    /**
+     * Throws {@link CoverCancelledException} if the execution of the given frame has been
+     * cancelled. Called at loop back-edges and function entries.
+     */
+    public static void poll(Frame frame) {
+        if (!UNCANCELLABLE.isValid()) {
+            fromFrame(frame).poll();
+        }
+    }
+
+    private void poll() {
+        if (isCancelled()) {
+            CompilerDirectives.transferToInterpreter();
+            throw CoverCancelledException.SINGLETON;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    public void setCancelled() {
+        if (result != null) {
+            result.cancelled = true;
+            result.timedOut = cancellationToken != null && cancellationToken.isTimedOut();
+        }
+        setReturnValue(SLNull.SINGLETON);
+    }
+
+    public void setBudgetExhausted() {
+        if (result != null) {
+            result.budgetExhausted = true;
+        }
+        setReturnValue(SLNull.SINGLETON);
+    }
+
+    public void setMemoryLimitExceeded() {
+        if (result != null) {
+            result.memoryLimitExceeded = true;
+        }
+        setReturnValue(SLNull.SINGLETON);
+    }
+}
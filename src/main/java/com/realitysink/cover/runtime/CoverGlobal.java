@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+
+/**
+ * A global variable, resolved at parse time to a fixed index in the {@link CoverGlobalStorage} of
+ * its program instance. Globals that are initialized with a literal (or not at all) have an
+ * initial value that is restored before every run. As long as such a global is never written,
+ * the {@link #getUnchanged() unchanged} assumption holds and reads can be folded to the initial
+ * value.
+ */
+public final class CoverGlobal {
+    private final String name;
+    private final CoverGlobalStorage storage;
+    private final FrameSlotKind kind;
+    private final int index;
+    private final Assumption unchanged;
+
+    @CompilationFinal private long initialLong;
+    @CompilationFinal private double initialDouble;
+    @CompilationFinal private float initialFloat;
+
+    CoverGlobal(String name, CoverGlobalStorage storage, FrameSlotKind kind, int index) {
+        this.name = name;
+        this.storage = storage;
+        this.kind = kind;
+        this.index = index;
+        this.unchanged = Truffle.getRuntime().createAssumption("global " + name + " unchanged");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CoverGlobalStorage getStorage() {
+        return storage;
+    }
+
+    public FrameSlotKind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isLong() {
+        return kind == FrameSlotKind.Long || kind == FrameSlotKind.Int;
+    }
+
+    public boolean isDouble() {
+        return kind == FrameSlotKind.Double;
+    }
+
+    public boolean isFloat() {
+        return kind == FrameSlotKind.Float;
+    }
+
+    /**
+     * Valid as long as the global holds its initial value, i.e. has not been written since it was
+     * initialized.
+     */
+    public Assumption getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Called on every write. Only the first one invalidates the assumption, after that the check
+     * is folded away by the compiler.
+     */
+    public void written() {
+        if (unchanged.isValid()) {
+            CompilerDirectives.transferToInterpreter();
+            unchanged.invalidate();
+        }
+    }
+
+    public long getInitialLong() {
+        return initialLong;
+    }
+
+    public double getInitialDouble() {
+        return initialDouble;
+    }
+
+    public float getInitialFloat() {
+        return initialFloat;
+    }
+
+    public void setInitialValue(long value) {
+        initialLong = value;
+    }
+
+    public void setInitialValue(double value) {
+        initialDouble = value;
+    }
+
+    public void setInitialValue(float value) {
+        initialFloat = value;
+    }
+
+    void reset() {
+        if (isLong()) {
+            storage.setLong(index, initialLong);
+        } else if (isDouble()) {
+            storage.setDouble(index, initialDouble);
+        } else if (isFloat()) {
+            storage.setFloat(index, initialFloat);
+        } else {
+            storage.setObject(index, null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "global " + name;
+    }
+}
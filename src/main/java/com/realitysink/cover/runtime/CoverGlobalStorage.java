@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+
+/**
+ * The global variables of one program instance. Every global gets a fixed index in one of the
+ * typed arrays when it is defined, so reads and writes are a plain array access without boxing.
+ * Globals are only defined while parsing, after that the arrays never change.
+ */
+public final class CoverGlobalStorage {
+    @CompilationFinal private long[] longs = new long[0];
+    @CompilationFinal private double[] doubles = new double[0];
+    @CompilationFinal private float[] floats = new float[0];
+    @CompilationFinal private Object[] objects = new Object[0];
+    private final List<CoverGlobal> globals = new ArrayList<>();
+
+    public CoverGlobal allocate(String name, FrameSlotKind kind) {
+        final int index;
+        switch (kind) {
+            case Long:
+            case Int:
+                index = longs.length;
+                longs = Arrays.copyOf(longs, index + 1);
+                break;
+            case Double:
+                index = doubles.length;
+                doubles = Arrays.copyOf(doubles, index + 1);
+                break;
+            case Float:
+                index = floats.length;
+                floats = Arrays.copyOf(floats, index + 1);
+                break;
+            default:
+                index = objects.length;
+                objects = Arrays.copyOf(objects, index + 1);
+                break;
+        }
+        CoverGlobal global = new CoverGlobal(name, this, kind, index);
+        globals.add(global);
+        return global;
+    }
+
+    public long getLong(int index) {
+        return longs[index];
+    }
+
+    public void setLong(int index, long value) {
+        longs[index] = value;
+    }
+
+    public double getDouble(int index) {
+        return doubles[index];
+    }
+
+    public void setDouble(int index, double value) {
+        doubles[index] = value;
+    }
+
+    public float getFloat(int index) {
+        return floats[index];
+    }
+
+    public void setFloat(int index, float value) {
+        floats[index] = value;
+    }
+
+    public Object getObject(int index) {
+        return objects[index];
+    }
+
+    public void setObject(int index, Object value) {
+        objects[index] = value;
+    }
+
+    /**
+     * Sets every global back to its initial value.
+     */
+    public void reset() {
+        for (CoverGlobal global : globals) {
+            global.reset();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The linear memory of a program instance that uses pointers: a flat, little endian address space
+ * in an off-heap buffer. The heap grows up from the bottom, the stack grows down from the top.
+ * <p>
+ * Address 0 is <code>NULL</code>; the first {@link #HEAP_START} bytes are never handed out, so
+ * dereferencing a null pointer fails like any other access outside the memory. Heap blocks come
+ * from a bump allocator: <code>free</code> does not give memory back, the whole heap is released
+ * when the instance is {@link #reset() reset} for the next run. Stack blocks
+ * (<code>alloca</code>) are released when the function that allocated them returns.
+ * <p>
+ * Blocks are counted in the {@link CoverMemoryAccount memory account} of the instance, if it has
+ * been given one; an allocation over its limit fails like one that does not fit in the memory.
+ * <p>
+ * Accesses throw {@link IndexOutOfBoundsException} for addresses outside the memory and for blocks
+ * with a negative length; the nodes turn that into a {@link CoverRuntimeException} that points at
+ * the offending expression.
+ */
+public final class CoverMemory {
+    /** The size of the memory of an instance, unless set with <code>cover.memory.size</code>. */
+    public static final int DEFAULT_SIZE = 16 * 1024 * 1024;
+
+    /** The lowest address handed out. */
+    public static final long HEAP_START = 8;
+
+    /** Blocks are aligned to the size of the largest primitive. */
+    private static final int ALIGNMENT = 8;
+
+    private static final byte[] ZEROS = new byte[4096];
+
+    private final ByteBuffer buffer;
+    private final ByteBuffer copySource;
+    private final ByteBuffer copyTarget;
+    private final long size;
+    private long heapTop = HEAP_START;
+    private long stackPointer;
+    /* the parts of the memory that have been handed out since the last reset */
+    private long heapHighWater = HEAP_START;
+    private long stackLowWater;
+    private CoverMemoryAccount account;
+
+    public CoverMemory() {
+        this(Integer.getInteger("cover.memory.size", DEFAULT_SIZE));
+    }
+
+    public CoverMemory(int size) {
+        this.buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        this.copySource = buffer.duplicate();
+        this.copyTarget = buffer.duplicate();
+        this.size = size;
+        this.stackPointer = size;
+        this.stackLowWater = size;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setAccount(CoverMemoryAccount account) {
+        this.account = account;
+    }
+
+    private int index(long address, int length) {
+        if (address < HEAP_START || address > size - length) {
+            throw new IndexOutOfBoundsException("invalid address " + address);
+        }
+        return (int) address;
+    }
+
+    private int blockIndex(long address, long length) {
+        if (length < 0 || length > size) {
+            throw new IndexOutOfBoundsException("invalid block of " + length + " bytes");
+        }
+        return index(address, (int) length);
+    }
+
+    public int getInt(long address) {
+        return buffer.getInt(index(address, 4));
+    }
+
+    public void putInt(long address, int value) {
+        buffer.putInt(index(address, 4), value);
+    }
+
+    public long getLong(long address) {
+        return buffer.getLong(index(address, 8));
+    }
+
+    public void putLong(long address, long value) {
+        buffer.putLong(index(address, 8), value);
+    }
+
+    public double getDouble(long address) {
+        return buffer.getDouble(index(address, 8));
+    }
+
+    public void putDouble(long address, double value) {
+        buffer.putDouble(index(address, 8), value);
+    }
+
+    public float getFloat(long address) {
+        return buffer.getFloat(index(address, 4));
+    }
+
+    public void putFloat(long address, float value) {
+        buffer.putFloat(index(address, 4), value);
+    }
+
+    private static long align(long length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Allocates a zeroed block on the heap. Returns 0 if the memory is exhausted, like
+     * <code>malloc</code>.
+     */
+    public long allocateHeap(long length) {
+        long aligned = align(Math.max(length, 1));
+        if (length < 0 || aligned > stackPointer - heapTop || (account != null && !account.tryAllocate(aligned))) {
+            return 0;
+        }
+        long address = heapTop;
+        heapTop += aligned;
+        heapHighWater = Math.max(heapHighWater, heapTop);
+        return address;
+    }
+
+    /**
+     * Allocates a zeroed block on the stack. Returns 0 if the memory is exhausted.
+     */
+    public long allocateStack(long length) {
+        long aligned = align(Math.max(length, 1));
+        if (length < 0 || aligned > stackPointer - heapTop || (account != null && !account.tryAllocate(aligned))) {
+            return 0;
+        }
+        stackPointer -= aligned;
+        long end = stackPointer + aligned;
+        if (stackLowWater < end) {
+            // the part that was used by an earlier block is dirty
+            long dirty = Math.max(stackPointer, stackLowWater);
+            fill(dirty, (byte) 0, end - dirty);
+        }
+        stackLowWater = Math.min(stackLowWater, stackPointer);
+        return stackPointer;
+    }
+
+    public long getStackPointer() {
+        return stackPointer;
+    }
+
+    /**
+     * Releases all stack blocks allocated since the stack pointer was at the given position.
+     */
+    public void releaseStack(long mark) {
+        if (account != null) {
+            account.free(mark - stackPointer);
+        }
+        stackPointer = mark;
+    }
+
+    /**
+     * Copies a block of memory. The blocks may overlap, like with <code>memmove</code>.
+     */
+    @TruffleBoundary
+    public void copy(long target, long source, long length) {
+        if (length == 0) {
+            return;
+        }
+        int from = blockIndex(source, length);
+        int to = blockIndex(target, length);
+        copySource.limit(from + (int) length).position(from);
+        copyTarget.limit(to + (int) length).position(to);
+        if (to > from && to < from + length) {
+            // the buffers would copy front to back and overwrite the source before reading it
+            byte[] temporary = new byte[(int) length];
+            copySource.get(temporary);
+            copyTarget.put(temporary);
+        } else {
+            copyTarget.put(copySource);
+        }
+        copySource.clear();
+        copyTarget.clear();
+    }
+
+    /**
+     * Sets a block of memory to the given byte, like <code>memset</code>.
+     */
+    @TruffleBoundary
+    public void fill(long address, byte value, long length) {
+        if (length == 0) {
+            return;
+        }
+        int from = blockIndex(address, length);
+        if (value == 0) {
+            copyTarget.position(from);
+            for (long remaining = length; remaining > 0; remaining -= ZEROS.length) {
+                copyTarget.put(ZEROS, 0, (int) Math.min(remaining, ZEROS.length));
+            }
+            copyTarget.clear();
+        } else {
+            for (int i = from; i < from + length; i++) {
+                buffer.put(i, value);
+            }
+        }
+    }
+
+    /**
+     * Compares two blocks of memory like <code>memcmp</code>: the difference of the first pair of
+     * bytes that differ, 0 if the blocks are equal. Compares eight bytes at a time.
+     */
+    @TruffleBoundary
+    public long compare(long a, long b, long length) {
+        if (length == 0) {
+            return 0;
+        }
+        int x = blockIndex(a, length);
+        int y = blockIndex(b, length);
+        int i = 0;
+        while (i + 8 <= length && buffer.getLong(x + i) == buffer.getLong(y + i)) {
+            i += 8;
+        }
+        for (; i < length; i++) {
+            int p = buffer.get(x + i) & 0xFF;
+            int q = buffer.get(y + i) & 0xFF;
+            if (p != q) {
+                return p - q;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Releases the heap and the stack and clears the memory that was handed out, so the next run
+     * starts from zeroed memory. Only the parts that were used are cleared.
+     */
+    @TruffleBoundary
+    public void reset() {
+        fill(HEAP_START, (byte) 0, heapHighWater - HEAP_START);
+        fill(stackLowWater, (byte) 0, size - stackLowWater);
+        heapTop = HEAP_START;
+        heapHighWater = HEAP_START;
+        stackPointer = size;
+        stackLowWater = size;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+/**
+ * Counts the bytes a program instance has allocated for the execution that is running on it:
+ * its global arrays, the local arrays in its {@link CoverArena arena}, its objects and the blocks
+ * handed out by its {@link CoverMemory linear memory}. An allocation that would take the total
+ * over the limit of the execution fails, so one program cannot take all the memory of a
+ * verifier that runs many.
+ */
+public final class CoverMemoryAccount {
+    /**
+     * The limit of an execution, unless set otherwise, and the limit that arrays with a constant
+     * size are checked against while parsing: <code>cover.allocation.limit</code>, 256MB by
+     * default.
+     */
+    public static final long DEFAULT_LIMIT = Long.getLong("cover.allocation.limit", 256L * 1024 * 1024);
+
+    /** The bytes of the global arrays, which exist as long as the instance. */
+    private final long globalBytes;
+    private long limit = DEFAULT_LIMIT;
+    private long used;
+    private long peak;
+
+    public CoverMemoryAccount(long globalBytes) {
+        this.globalBytes = globalBytes;
+        this.used = globalBytes;
+        this.peak = globalBytes;
+    }
+
+    /**
+     * Starts the account of a new execution, on an instance that has just been reset: only the
+     * global arrays are in use. Throws {@link CoverMemoryLimitExceededException} if even those do
+     * not fit in the limit.
+     */
+    public void start(long executionLimit) {
+        limit = executionLimit;
+        used = globalBytes;
+        peak = globalBytes;
+        if (used > limit) {
+            throw CoverMemoryLimitExceededException.SINGLETON;
+        }
+    }
+
+    /**
+     * Counts an allocation, throwing {@link CoverMemoryLimitExceededException} if it does not fit.
+     */
+    public void allocate(long bytes) {
+        if (!tryAllocate(bytes)) {
+            throw CoverMemoryLimitExceededException.SINGLETON;
+        }
+    }
+
+    /**
+     * Counts an allocation if it fits, like <code>malloc</code>, which returns <code>NULL</code>
+     * rather than failing.
+     */
+    public boolean tryAllocate(long bytes) {
+        if (bytes < 0 || bytes > limit - used) {
+            return false;
+        }
+        used += bytes;
+        if (used > peak) {
+            peak = used;
+        }
+        return true;
+    }
+
+    public void free(long bytes) {
+        used -= bytes;
+    }
+
+    public long getUsed() {
+        return used;
+    }
+
+    /**
+     * The most bytes that were in use at any time during the current execution.
+     */
+    public long getPeak() {
+        return peak;
+    }
+}
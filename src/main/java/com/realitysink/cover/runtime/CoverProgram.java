@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.CoverLanguage;
+import com.realitysink.cover.nodes.CoverEntryRootNode;
+
+/**
+ * A parsed Cover program, kept in the {@link CoverProgramCache} so repeated executions of the same
+ * source reuse the already specialized (and compiled) tree. The program is entered through a
+ * {@link CoverEntryRootNode}, which leases a {@link CoverProgramInstance} for the duration of the
+ * run. Idle instances are kept in a pool; concurrent executions of the same program each get their
+ * own instance, parsing a new one if the pool is empty.
+ */
+public final class CoverProgram {
+    private final String key;
+    private final Source source;
+    private final CallTarget entryCallTarget;
+    private final Deque<CoverProgramInstance> idleInstances = new ArrayDeque<>();
+    private int instanceCount;
+
+    public CoverProgram(String key, Source source, CoverProgramInstance firstInstance) {
+        this.key = key;
+        this.source = source;
+        this.entryCallTarget = Truffle.getRuntime().createCallTarget(new CoverEntryRootNode(this));
+        this.idleInstances.push(firstInstance);
+        this.instanceCount = 1;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public CallTarget getEntryCallTarget() {
+        return entryCallTarget;
+    }
+
+    public synchronized int getInstanceCount() {
+        return instanceCount;
+    }
+
+    /**
+     * Takes an instance out of the pool, parsing a new one if none is idle.
+     */
+    @TruffleBoundary
+    public CoverProgramInstance acquire() {
+        CoverProgramInstance instance;
+        synchronized (this) {
+            instance = idleInstances.poll();
+            if (instance == null) {
+                instanceCount++;
+            }
+        }
+        if (instance == null) {
+            try {
+                instance = CoverLanguage.parseInstance(source);
+            } catch (IOException e) {
+                throw new IllegalStateException("program " + key + " parsed before but not now", e);
+            }
+        }
+        return instance;
+    }
+
+    @TruffleBoundary
+    public synchronized void release(CoverProgramInstance instance) {
+        idleInstances.push(instance);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * Size-bounded LRU cache of parsed programs, keyed by the SHA-256 hash of the source code. The
+ * maximum number of entries defaults to {@link #DEFAULT_MAXIMUM_SIZE} and can be changed with the
+ * <code>cover.programCache.size</code> system property or {@link #setMaximumSize(int)}; a size of
+ * zero disables caching. A {@link #pin pinned} program stays cached until it is unpinned, whatever
+ * the maximum size.
+ */
+public final class CoverProgramCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    private final LinkedHashMap<String, CoverProgram> programs = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> pins = new HashMap<>();
+    private int maximumSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CoverProgramCache() {
+        this(Integer.getInteger("cover.programCache.size", DEFAULT_MAXIMUM_SIZE));
+    }
+
+    public CoverProgramCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public static String keyOf(Source source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(source.getCode().getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16));
+                key.append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached program for the given key, or null (counted as a miss) if it is not
+     * cached.
+     */
+    public synchronized CoverProgram lookup(String key) {
+        CoverProgram program = programs.get(key);
+        if (program != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return program;
+    }
+
+    public synchronized void put(CoverProgram program) {
+        if (maximumSize <= 0) {
+            return;
+        }
+        programs.put(program.getKey(), program);
+        evictToSize();
+    }
+
+    /**
+     * Keeps the program cached until {@link #unpin} is called as often as this method, so a long
+     * running user of the program never has to parse it again.
+     */
+    public synchronized void pin(CoverProgram program) {
+        programs.put(program.getKey(), program);
+        Integer count = pins.get(program.getKey());
+        pins.put(program.getKey(), count == null ? 1 : count + 1);
+    }
+
+    public synchronized void unpin(CoverProgram program) {
+        Integer count = pins.get(program.getKey());
+        if (count == null) {
+            return;
+        } else if (count == 1) {
+            pins.remove(program.getKey());
+        } else {
+            pins.put(program.getKey(), count - 1);
+        }
+        evictToSize();
+    }
+
+    public synchronized void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+        evictToSize();
+    }
+
+    private void evictToSize() {
+        Iterator<Map.Entry<String, CoverProgram>> it = programs.entrySet().iterator();
+        while (programs.size() > Math.max(maximumSize, 0) && it.hasNext()) {
+            if (pins.containsKey(it.next().getKey())) {
+                continue;
+            }
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all programs that are not pinned.
+     */
+    public synchronized void clear() {
+        programs.keySet().retainAll(pins.keySet());
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized int size() {
+        return programs.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CoverProgramCache[size=" + programs.size() + "/" + maximumSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+}
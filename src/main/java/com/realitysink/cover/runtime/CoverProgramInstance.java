@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.realitysink.cover.nodes.CoverReference;
+import com.realitysink.cover.nodes.CoverScope;
+
+/**
+ * One parsed copy of a {@link CoverProgram}: the call target of its <code>main_proxy</code> entry
+ * point, the initializer of its globals, the file scope it was parsed into and its linear memory.
+ * The arrays of an instance live in its scope, so an instance is only ever used by one execution
+ * at a time.
+ */
+public final class CoverProgramInstance {
+    private final CallTarget mainProxy;
+    private final CallTarget globalInitializer;
+    private final CoverScope scope;
+    private final CoverMemoryAccount memoryAccount;
+    private final CoverArena arena;
+    private final CoverMemory memory;
+    private final int sLength;
+
+    public CoverProgramInstance(CallTarget mainProxy, CallTarget globalInitializer, CoverScope scope, CoverMemory memory) {
+        this.mainProxy = mainProxy;
+        this.globalInitializer = globalInitializer;
+        this.scope = scope;
+        this.memory = memory;
+        this.memoryAccount = new CoverMemoryAccount(globalBytes(scope));
+        this.arena = new CoverArena(memoryAccount);
+        if (memory != null) {
+            memory.setAccount(memoryAccount);
+        }
+        this.sLength = bindableLength(scope, "s");
+    }
+
+    /**
+     * The length of a global int array that can be bound to a buffer of the host, or -1 if there is
+     * no such array.
+     */
+    private static int bindableLength(CoverScope scope, String name) {
+        CoverReference ref = scope.findReference(name);
+        if (ref == null || ref.getFrameSlot() == null) {
+            return -1;
+        }
+        Object array = scope.getHeapObject(ref.getFrameSlot());
+        return array instanceof int[] ? ((int[]) array).length : -1;
+    }
+
+    /**
+     * The size of the global arrays and constant tables of the program.
+     */
+    public static long globalBytes(CoverScope scope) {
+        long bytes = 0;
+        for (Object heapObject : scope.getAllHeapObjects()) {
+            if (heapObject instanceof int[] || heapObject instanceof float[]) {
+                bytes += 4L * Array.getLength(heapObject);
+            } else if (heapObject instanceof long[] || heapObject instanceof double[]) {
+                bytes += 8L * Array.getLength(heapObject);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * The length of the global <code>s</code> array, -1 if the program has none.
+     */
+    public int getSLength() {
+        return sLength;
+    }
+
+    public CallTarget getMainProxy() {
+        return mainProxy;
+    }
+
+    /**
+     * Initializes the globals that do not have a literal initial value, <code>null</code> if there
+     * are none.
+     */
+    public CallTarget getGlobalInitializer() {
+        return globalInitializer;
+    }
+
+    public CoverScope getScope() {
+        return scope;
+    }
+
+    public CoverArena getArena() {
+        return arena;
+    }
+
+    public CoverMemoryAccount getMemoryAccount() {
+        return memoryAccount;
+    }
+
+    /**
+     * The linear memory of the instance, <code>null</code> if the program does not use pointers.
+     */
+    public CoverMemory getMemory() {
+        return memory;
+    }
+
+    /**
+     * Sets all global variables back to their initial values, sets all global arrays back to
+     * their initializers (or zero) and clears the linear memory of the instance, so a run does not
+     * observe values left behind by the previous run. Local arrays are initialized when they are
+     * allocated.
+     */
+    @TruffleBoundary
+    public void reset() {
+        arena.release(0);
+        if (memory != null) {
+            memory.reset();
+        }
+        scope.getGlobalStorage().reset();
+        for (Object heapObject : scope.getAllHeapObjects()) {
+            Object template = scope.getArrayTemplate(heapObject);
+            if (template == heapObject) {
+                // a table that is never written
+            } else if (template != null) {
+                System.arraycopy(template, 0, heapObject, 0, Array.getLength(template));
+            } else if (heapObject instanceof long[]) {
+                Arrays.fill((long[]) heapObject, 0);
+            } else if (heapObject instanceof int[]) {
+                Arrays.fill((int[]) heapObject, 0);
+            } else if (heapObject instanceof double[]) {
+                Arrays.fill((double[]) heapObject, 0);
+            } else if (heapObject instanceof float[]) {
+                Arrays.fill((float[]) heapObject, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.runtime;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Records the writes of one execution to its bound <code>s</code> storage: the indices that were
+ * changed and their values before the run, so the digest of the final storage can be derived from
+ * the digest of the input without reading the whole storage after the run.
+ * <p>
+ * A digest chains its state through the finalizer of SplitMix64, <code>h = mix(h ^ x)</code>, so
+ * unlike a sum of hashes it cannot be adjusted by adding or cancelling terms. The digest of a
+ * whole storage chains every (index, value) pair in index order. The digest after a run chains the
+ * digest of the input with the pairs whose final value differs from the input, again in index
+ * order. Two runs on the same input therefore get the same digest exactly when they leave the same
+ * storage.
+ */
+public final class CoverStorageTracker {
+    private final long[] dirty;
+    private final long initialDigest;
+    /** The changed indices in the upper, their values before the run in the lower 32 bits. */
+    private long[] changed = new long[16];
+    private int changedCount;
+
+    public CoverStorageTracker(int length, long initialDigest) {
+        this.dirty = new long[(length + 63) >>> 6];
+        this.initialDigest = initialDigest;
+    }
+
+    public void written(int index, int oldValue, int newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        long bit = 1L << index;
+        int word = index >>> 6;
+        if ((dirty[word] & bit) == 0) {
+            dirty[word] |= bit;
+            if (changedCount == changed.length) {
+                changed = Arrays.copyOf(changed, changedCount * 2);
+            }
+            changed[changedCount++] = pair(index, oldValue);
+        }
+    }
+
+    /**
+     * The indices written with a different value than they had, in the order of their first change.
+     */
+    public int[] getChangedIndices() {
+        int[] indices = new int[changedCount];
+        for (int i = 0; i < changedCount; i++) {
+            indices[i] = (int) (changed[i] >>> 32);
+        }
+        return indices;
+    }
+
+    /**
+     * The digest of the final storage, an <code>int[]</code> or an {@link IntBuffer}.
+     */
+    public long getDigest(Object storage) {
+        long[] sorted = Arrays.copyOf(changed, changedCount);
+        Arrays.sort(sorted);
+        long digest = initialDigest;
+        for (long entry : sorted) {
+            int index = (int) (entry >>> 32);
+            int value = storage instanceof IntBuffer ? ((IntBuffer) storage).get(index) : ((int[]) storage)[index];
+            if (value != (int) entry) {
+                digest = mix(digest ^ pair(index, value));
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * The digest of a whole storage, to be computed once for the input of a work package.
+     */
+    public static long digest(int[] storage) {
+        long digest = storage.length;
+        for (int i = 0; i < storage.length; i++) {
+            digest = mix(digest ^ pair(i, storage[i]));
+        }
+        return digest;
+    }
+
+    public static long digest(IntBuffer storage) {
+        long digest = storage.limit();
+        for (int i = 0; i < storage.limit(); i++) {
+            digest = mix(digest ^ pair(i, storage.get(i)));
+        }
+        return digest;
+    }
+
+    private static long pair(int index, int value) {
+        return ((long) index << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -44,6 +44,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -92,11 +93,13 @@ public final class SLContext extends ExecutionContext {
     private final SLFunctionRegistry functionRegistry;
     private final Shape emptyShape;
     private final TruffleLanguage.Env env;
+    private final AtomicReference<CoverExecution[]> executions;
 
-    public SLContext(TruffleLanguage.Env env, BufferedReader input, PrintWriter output) {
+    public SLContext(TruffleLanguage.Env env, BufferedReader input, PrintWriter output, AtomicReference<CoverExecution[]> executions) {
         this.input = input;
         this.output = output;
         this.env = env;
+        this.executions = executions;
         this.functionRegistry = new SLFunctionRegistry();
         installBuiltins();
 
@@ -119,6 +122,14 @@ public final class SLContext extends ExecutionContext {
         return output;
     }
 
+    /**
+     * The executions to run one after the other when the program is evaluated next. The engine
+     * can set them before every evaluation, see {@link CoverExecution#CONFIG_KEY}.
+     */
+    public CoverExecution[] getExecutions() {
+        return executions.get();
+    }
+
     /**
      * Returns the registry of all functions that are currently defined.
      */
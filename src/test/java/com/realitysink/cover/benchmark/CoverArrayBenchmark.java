@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+
+/**
+ * Measures array access in hot loops: a local and a global array are read and written about six
+ * million times per run.
+ * <p>
+ * Usage: <code>CoverArrayBenchmark [program.cover] [runs]</code>, the program defaults to
+ * <code>tests/arrays_benchmark.cover</code>.
+ */
+public final class CoverArrayBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "tests/arrays_benchmark.cover";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Source source = CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        System.out.printf("%8.2f ms/run%n", (System.nanoTime() - start) / 1e6 / runs);
+    }
+}
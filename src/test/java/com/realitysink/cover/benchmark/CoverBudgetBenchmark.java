@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+
+/**
+ * Measures the overhead of budget metering. The program is first run unmetered and then with a
+ * budget large enough never to run out. Metering is compiled out until the first metered
+ * execution is created, so the unmetered runs must come first.
+ * <p>
+ * Usage: <code>CoverBudgetBenchmark [program.cover] [runs]</code>, the program defaults to
+ * <code>tests/benchmark.cover</code>.
+ */
+public final class CoverBudgetBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "tests/benchmark.cover";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Source source = CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        double unmetered = measure(executor, source, runs);
+        executor.setBudget(Long.MAX_VALUE / 2);
+        double metered = measure(executor, source, runs);
+        System.out.printf("unmetered: %8.2f ms/run%n", unmetered);
+        System.out.printf("metered:   %8.2f ms/run (%+.1f%%)%n", metered, (metered / unmetered - 1) * 100);
+    }
+
+    private static double measure(CoverExecutor executor, Source source, int runs) throws Exception {
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        return (System.nanoTime() - start) / 1e6 / runs;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+
+/**
+ * Compares clearing, copying and comparing arrays with loops written in Cover to doing the same
+ * with the <code>memset</code>, <code>memcpy</code> and <code>memcmp</code> builtins.
+ * <p>
+ * Usage: <code>CoverBulkBenchmark [loops.cover] [builtins.cover] [runs]</code>, the programs
+ * default to <code>tests/bulk_loops_benchmark.cover</code> and
+ * <code>tests/bulk_builtins_benchmark.cover</code>.
+ */
+public final class CoverBulkBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String loopsFile = args.length > 0 ? args[0] : "tests/bulk_loops_benchmark.cover";
+        String builtinsFile = args.length > 1 ? args[1] : "tests/bulk_builtins_benchmark.cover";
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        double loops = measure(executor, load(loopsFile), runs);
+        double builtins = measure(executor, load(builtinsFile), runs);
+        System.out.printf("loops:    %8.2f ms/run%n", loops);
+        System.out.printf("builtins: %8.2f ms/run (%.1fx)%n", builtins, loops / builtins);
+    }
+
+    private static Source load(String file) throws Exception {
+        return CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+    }
+
+    private static double measure(CoverExecutor executor, Source source, int runs) throws Exception {
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        return (System.nanoTime() - start) / 1e6 / runs;
+    }
+}
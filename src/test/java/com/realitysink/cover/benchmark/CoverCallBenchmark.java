@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+
+/**
+ * Measures the cost of function calls: time per run and the bytes allocated by the running
+ * thread per run, most of which are the frames of the called functions.
+ * <p>
+ * Usage: <code>CoverCallBenchmark [program.cover] [runs]</code>, the program defaults to
+ * <code>tests/calls_benchmark.cover</code>.
+ */
+public final class CoverCallBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "tests/calls_benchmark.cover";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Source source = CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, new ComputationResult());
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / runs;
+        double bytes = (double) (threads.getThreadAllocatedBytes(thread) - allocated) / runs;
+        System.out.printf("%8.2f ms/run, %12.0f bytes allocated/run%n", millis, bytes);
+    }
+}
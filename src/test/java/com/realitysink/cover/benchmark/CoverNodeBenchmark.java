@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.realitysink.cover.nodes.CoverTypedExpressionNode;
+import com.realitysink.cover.nodes.SLRootNode;
+import com.realitysink.cover.nodes.SLStatementNode;
+import com.realitysink.cover.nodes.controlflow.CoverReturnException;
+import com.realitysink.cover.nodes.controlflow.CoverReturnNode;
+import com.realitysink.cover.nodes.controlflow.CoverSwitchNode;
+import com.realitysink.cover.nodes.controlflow.SLBlockNode;
+import com.realitysink.cover.nodes.controlflow.SLBreakNode;
+import com.realitysink.cover.nodes.controlflow.SLFunctionBodyNode;
+import com.realitysink.cover.nodes.controlflow.SLIfNode;
+import com.realitysink.cover.nodes.controlflow.SLWhileNode;
+import com.realitysink.cover.nodes.expression.CoverAddSignedLongNodeGen;
+import com.realitysink.cover.nodes.expression.CoverEqualSignedLongNodeGen;
+import com.realitysink.cover.nodes.expression.CoverLessOrEqualSignedLongNodeGen;
+import com.realitysink.cover.nodes.expression.CoverLessThanSignedLongNodeGen;
+import com.realitysink.cover.nodes.expression.CoverModSignedLongNodeGen;
+import com.realitysink.cover.nodes.expression.SLSignedLongLiteralNode;
+import com.realitysink.cover.nodes.local.CoverReadSignedLongArgumentNodeGen;
+import com.realitysink.cover.nodes.local.CoverReadSignedLongVariableNodeGen;
+import com.realitysink.cover.nodes.local.CoverWriteSignedLongNodeGen;
+import com.realitysink.cover.runtime.CoverExecution;
+
+/**
+ * Runs small functions built directly from Cover nodes, without the parser, and reports the time
+ * per loop iteration. It measures the nodes themselves on whatever Truffle runtime the JVM has, so
+ * it also runs where the C programs of the other benchmarks cannot be parsed. The functions are
+ * what the parser builds for the C shown with each mode.
+ * <p>
+ * Usage: <code>CoverNodeBenchmark switch|return|budget|threads [iterations] [runs] [threads]</code>
+ * <ul>
+ * <li><code>switch</code>: <code>for (i = 0; i &lt; n; i++) switch (i % cases) { case k: sum += k;
+ * break; }</code> against the same loop with an <code>if</code>/<code>else if</code> chain, for 4,
+ * 16 and 64 cases.</li>
+ * <li><code>return</code>: calls of <code>for (i = 0; i &lt;= n; i++) if (i == n) return i;</code> with
+ * <code>n</code> 0, 8 and 64, the return leaving the loop through a frame slot against the
+ * {@link CoverReturnException} it used to throw. Here <code>iterations</code> is the number of
+ * calls per run.</li>
+ * <li><code>budget</code>: the <code>switch</code> loop with 16 cases, first unmetered and then
+ * with a budget that never runs out. Metering is compiled out until the first metered execution
+ * is created, so the unmetered runs must come first.</li>
+ * <li><code>threads</code>: the <code>switch</code> loop with 16 cases on one shared call target,
+ * from 1, 2, 4, ... threads and the maximum number of threads at once, which defaults to the
+ * number of cores. Every thread has its own execution, like the workers of
+ * {@link com.realitysink.cover.CoverExecutor#verifyBatch}.</li>
+ * </ul>
+ */
+public final class CoverNodeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "switch";
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : mode.equals("return") ? 100000 : 1000000;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        if (mode.equals("switch")) {
+            for (int cases : new int[]{4, 16, 64}) {
+                double ifChain = measure(dispatchLoop(cases, false), iterations, runs);
+                double table = measure(dispatchLoop(cases, true), iterations, runs);
+                System.out.printf("%2d cases: if chain %6.1f ns/iteration, switch %6.1f ns/iteration (%+.1f%%)%n", cases, ifChain, table,
+                                (table / ifChain - 1) * 100);
+            }
+        } else if (mode.equals("return")) {
+            for (long n : new long[]{0, 8, 64}) {
+                double exception = measureCalls(returnFromLoop(false), n, iterations, runs);
+                double slot = measureCalls(returnFromLoop(true), n, iterations, runs);
+                System.out.printf("n = %2d: exception %7.1f ns/call, slot %7.1f ns/call (%+.1f%%)%n", n, exception, slot, (slot / exception - 1) * 100);
+            }
+        } else if (mode.equals("budget")) {
+            CallTarget loop = dispatchLoop(16, true);
+            double unmetered = measure(loop, iterations, runs, CoverExecution.UNLIMITED);
+            double metered = measure(loop, iterations, runs, Long.MAX_VALUE / 2);
+            System.out.printf("unmetered: %6.1f ns/iteration%n", unmetered);
+            System.out.printf("metered:   %6.1f ns/iteration (%+.1f%%)%n", metered, (metered / unmetered - 1) * 100);
+        } else if (mode.equals("threads")) {
+            int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            CallTarget loop = dispatchLoop(16, true);
+            measureThreads(loop, iterations, runs, maxThreads);
+            double single = 0;
+            for (int threads : CoverThroughputBenchmark.threadCounts(maxThreads)) {
+                double perSecond = measureThreads(loop, iterations, runs, threads);
+                if (threads == 1) {
+                    single = perSecond;
+                }
+                System.out.printf("%3d threads: %12.0f iterations/s, speedup %5.2f%n", threads, perSecond, perSecond / single);
+            }
+        } else {
+            throw new IllegalArgumentException("unknown mode " + mode);
+        }
+    }
+
+    private static double measure(CallTarget function, long iterations, int runs) {
+        return measure(function, iterations, runs, CoverExecution.UNLIMITED);
+    }
+
+    /**
+     * Runs the function <code>runs</code> times to warm up and <code>runs</code> times measured,
+     * each time with a new execution with the given budget, and returns the time per iteration in
+     * nanoseconds.
+     */
+    private static double measure(CallTarget function, long iterations, int runs, long budget) {
+        for (int i = 0; i < runs; i++) {
+            function.call(new CoverExecution(null, budget), iterations);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            function.call(new CoverExecution(null, budget), iterations);
+        }
+        return (double) (System.nanoTime() - start) / runs / iterations;
+    }
+
+    /**
+     * Calls the function with the argument <code>n</code>, <code>calls</code> times per run, and
+     * returns the time per call in nanoseconds.
+     */
+    private static double measureCalls(CallTarget function, long n, long calls, int runs) {
+        CoverExecution execution = new CoverExecution(null);
+        for (int r = 0; r < runs; r++) {
+            for (long c = 0; c < calls; c++) {
+                function.call(execution, n);
+            }
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            for (long c = 0; c < calls; c++) {
+                function.call(execution, n);
+            }
+        }
+        return (double) (System.nanoTime() - start) / runs / calls;
+    }
+
+    /**
+     * Runs the function <code>runs</code> times on each of the threads at once and returns the
+     * iterations per second of all threads together.
+     */
+    private static double measureThreads(final CallTarget function, final long iterations, final int runs, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(new Callable<Void>() {
+                    public Void call() {
+                        for (int i = 0; i < runs; i++) {
+                            function.call(new CoverExecution(null), iterations);
+                        }
+                        return null;
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+            return (double) threads * runs * iterations * 1e9 / (System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static CallTarget returnFromLoop(boolean useSlot) {
+        FrameDescriptor frameDescriptor = new FrameDescriptor();
+        FrameSlot n = frameDescriptor.addFrameSlot("n", FrameSlotKind.Long);
+        FrameSlot i = frameDescriptor.addFrameSlot("i", FrameSlotKind.Long);
+        FrameSlot result = frameDescriptor.addFrameSlot("<return>", FrameSlotKind.Long);
+        FrameSlot returnedSlot = useSlot ? frameDescriptor.addFrameSlot("<returned>", FrameSlotKind.Boolean) : null;
+
+        SLStatementNode returnNode = new CoverReturnNode(CoverWriteSignedLongNodeGen.create(read(i), result));
+        SLStatementNode body = new SLIfNode(CoverEqualSignedLongNodeGen.create(read(i), read(n)), returnNode, null);
+        return function(frameDescriptor, n, result, new SLBlockNode(new SLStatementNode[]{
+                        CoverWriteSignedLongNodeGen.create(constant(0), i),
+                        new SLWhileNode(CoverLessOrEqualSignedLongNodeGen.create(read(i), read(n)), body, add(i, constant(1)), false, returnedSlot)}));
+    }
+
+    private static CallTarget dispatchLoop(int cases, boolean useSwitch) {
+        FrameDescriptor frameDescriptor = new FrameDescriptor();
+        FrameSlot n = frameDescriptor.addFrameSlot("n", FrameSlotKind.Long);
+        FrameSlot i = frameDescriptor.addFrameSlot("i", FrameSlotKind.Long);
+        FrameSlot sum = frameDescriptor.addFrameSlot("sum", FrameSlotKind.Long);
+        FrameSlot op = frameDescriptor.addFrameSlot("op", FrameSlotKind.Long);
+
+        SLStatementNode dispatch;
+        if (useSwitch) {
+            long[] keys = new long[cases];
+            int[] targets = new int[cases];
+            SLStatementNode[] segments = new SLStatementNode[cases];
+            for (int k = 0; k < cases; k++) {
+                keys[k] = k;
+                targets[k] = k;
+                segments[k] = new SLBlockNode(new SLStatementNode[]{add(sum, constant(k)), new SLBreakNode()});
+            }
+            dispatch = new CoverSwitchNode(read(op), keys, targets, cases, segments);
+        } else {
+            dispatch = null;
+            for (int k = cases - 1; k >= 0; k--) {
+                dispatch = new SLIfNode(CoverEqualSignedLongNodeGen.create(read(op), constant(k)), add(sum, constant(k)), dispatch);
+            }
+        }
+        SLStatementNode body = new SLBlockNode(new SLStatementNode[]{
+                        CoverWriteSignedLongNodeGen.create(CoverModSignedLongNodeGen.create(read(i), constant(cases)), op),
+                        dispatch,
+                        add(i, constant(1))});
+        return function(frameDescriptor, n, sum, new SLBlockNode(new SLStatementNode[]{
+                        CoverWriteSignedLongNodeGen.create(constant(0), i),
+                        CoverWriteSignedLongNodeGen.create(constant(0), sum),
+                        new SLWhileNode(CoverLessThanSignedLongNodeGen.create(read(i), read(n)), body)}));
+    }
+
+    /**
+     * A function of one <code>long</code> argument, stored in <code>n</code>, that runs the body and
+     * returns <code>result</code>.
+     */
+    private static CallTarget function(FrameDescriptor frameDescriptor, FrameSlot n, FrameSlot result, SLStatementNode body) {
+        // argument 0 is the execution
+        SLStatementNode readArgument = CoverWriteSignedLongNodeGen.create(CoverReadSignedLongArgumentNodeGen.create(1), n);
+        SLBlockNode block = new SLBlockNode(new SLStatementNode[]{readArgument, body});
+        return Truffle.getRuntime().createCallTarget(new SLRootNode(frameDescriptor, new SLFunctionBodyNode(block, read(result)), null, "benchmark"));
+    }
+
+    private static SLStatementNode add(FrameSlot slot, CoverTypedExpressionNode value) {
+        return CoverWriteSignedLongNodeGen.create(CoverAddSignedLongNodeGen.create(read(slot), value), slot);
+    }
+
+    private static CoverTypedExpressionNode read(FrameSlot slot) {
+        return CoverReadSignedLongVariableNodeGen.create(slot);
+    }
+
+    private static CoverTypedExpressionNode constant(long value) {
+        return new SLSignedLongLiteralNode(value);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+import com.realitysink.cover.runtime.CoverStorageTracker;
+
+/**
+ * Measures a work package with a large <code>s</code> storage array: the heap retained by the
+ * cached program (mostly its arrays) and the time per run of a loop that streams over the storage.
+ * <p>
+ * Usage: <code>CoverStorageBenchmark [program.cover] [storage size] [runs] [direct] [track]</code>,
+ * the program defaults to <code>tests/storage_benchmark.cover</code> with a storage of 262144
+ * ints. With <code>direct</code> the storage is an off-heap {@link IntBuffer} instead of an
+ * <code>int[]</code>, with <code>track</code> the changes to the storage are tracked.
+ */
+public final class CoverStorageBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "tests/storage_benchmark.cover";
+        int storageSize = args.length > 1 ? Integer.parseInt(args[1]) : 262144;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        List<String> options = Arrays.asList(args);
+        boolean direct = options.contains("direct");
+        boolean track = options.contains("track");
+        Source source = CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        long before = usedHeap();
+        executor.run(source, createResult(storageSize, direct, track));
+        long retained = usedHeap() - before;
+
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, createResult(storageSize, direct, track));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            executor.run(source, createResult(storageSize, direct, track));
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / runs;
+        System.out.printf("retained by the cached program: %10d bytes%n", retained);
+        System.out.printf("%8.2f ms/run, %8.1f MB/s of storage%n", millis, 8.0 * storageSize * 4 / 1e6 / (millis / 1000));
+    }
+
+    private static ComputationResult createResult(int storageSize, boolean direct, boolean track) {
+        ComputationResult result = new ComputationResult();
+        result.storage_size = storageSize;
+        result.trackStorageChanges = track;
+        if (direct) {
+            result.storageBuffer = ByteBuffer.allocateDirect(storageSize * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+            for (int i = 0; i < storageSize; i++) {
+                result.storageBuffer.put(i, i);
+            }
+        } else {
+            result.storage = new int[storageSize];
+            for (int i = 0; i < storageSize; i++) {
+                result.storage[i] = i;
+            }
+        }
+        if (track) {
+            result.storageDigest = direct ? CoverStorageTracker.digest(result.storageBuffer) : CoverStorageTracker.digest(result.storage);
+        }
+        return result;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
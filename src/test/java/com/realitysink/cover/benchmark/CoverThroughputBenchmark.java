@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+
+/**
+ * Measures verification throughput of {@link CoverExecutor} with 1, 2, 4, ... threads and the
+ * maximum number of threads, each thread running the same program with its own inputs, and then the same
+ * number of inputs through {@link CoverExecutor#verifyBatch}, sequentially and on fork-join pools
+ * of the same sizes.
+ * <p>
+ * Usage: <code>CoverThroughputBenchmark [program.cover] [runs per thread] [threads]</code>, the
+ * program defaults to <code>tests/verify_benchmark.cover</code> and the threads to the number of
+ * cores.
+ */
+public final class CoverThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "tests/verify_benchmark.cover";
+        final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final Source source = CoverExecutor.createSource(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        final CoverExecutor executor = new CoverExecutor(new ByteArrayInputStream(new byte[0]), new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        // warm up the shared program on every thread count we measure
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        measure(executor, source, maxThreads, runs);
+
+        double single = 0;
+        for (int threads : threadCounts(maxThreads)) {
+            double perSecond = measure(executor, source, threads, runs);
+            if (threads == 1) {
+                single = perSecond;
+            }
+            System.out.printf("%3d threads: %10.1f executions/s, speedup %5.2f%n", threads, perSecond, perSecond / single);
+        }
+
+        List<ComputationResult> inputs = new ArrayList<>();
+        for (int i = 0; i < runs * maxThreads; i++) {
+            inputs.add(createInput(i));
+        }
+        long start = System.nanoTime();
+        executor.verifyBatch(source, inputs);
+        System.out.printf("batch:       %10.1f executions/s%n", inputs.size() * 1e9 / (System.nanoTime() - start));
+        for (int threads : threadCounts(maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            executor.verifyBatch(source, inputs, pool);
+            System.out.printf("batch (%2d): %10.1f executions/s%n", threads, inputs.size() * 1e9 / (System.nanoTime() - start));
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 1, 2, 4, ... up to the maximum, and the maximum itself if it is not a power of two.
+     */
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        if (counts.get(counts.size() - 1) != maxThreads) {
+            counts.add(maxThreads);
+        }
+        return counts;
+    }
+
+    private static double measure(final CoverExecutor executor, final Source source, int threads, final int runs) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int seed = t;
+                tasks.add(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int i = 0; i < runs; i++) {
+                            executor.execute(source, createInput(seed * runs + i));
+                        }
+                        return null;
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            return (double) threads * runs * 1e9 / elapsed;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static ComputationResult createInput(int nonce) {
+        ComputationResult input = new ComputationResult();
+        for (int i = 0; i < input.personalized_ints.length; i++) {
+            input.personalized_ints[i] = nonce * 12 + i;
+        }
+        input.storage = new int[64];
+        input.storage_size = 64;
+        return input;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverMain;
+
+public class CoverMainTest {
+    private static final String HEADER = "uint m[12];\nuint s[4];\nuint r[2];\n";
+
+    private static ComputationResult run(String program) throws Exception {
+        return CoverMain.executeSource(HEADER + program, new ByteArrayInputStream(new byte[0]),
+                        new PrintStream(new ByteArrayOutputStream()), new int[4]);
+    }
+
+    @Test
+    public void cleanRunDoesNotSeeThePreviousFailure() throws Exception {
+        ComputationResult failed = run("void main_proxy() {\n" +
+                        "    pull_the_rest(m, s);\n" +
+                        "    s[m[0] + 4] = 1;\n" +
+                        "}\n");
+        assertNotNull(failed.failure);
+
+        // leave behind everything else a run can report, too
+        ComputationResult shared = CoverMain.getComputationResult();
+        shared.isPow = true;
+        shared.isBounty = true;
+        shared.budgetExhausted = true;
+        shared.memoryLimitExceeded = true;
+        shared.cancelled = true;
+        shared.timedOut = true;
+        shared.peakBytes = 1024;
+        shared.changedIndices = new int[]{0};
+
+        ComputationResult clean = run("void main_proxy() {\n" +
+                        "    pull_the_rest(m, s);\n" +
+                        "    s[0] = 1;\n" +
+                        "}\n");
+        assertNull(clean.failure);
+        assertFalse(clean.isPow);
+        assertFalse(clean.isBounty);
+        assertFalse(clean.budgetExhausted);
+        assertFalse(clean.memoryLimitExceeded);
+        assertFalse(clean.cancelled);
+        assertFalse(clean.timedOut);
+        assertNull(clean.changedIndices);
+        assertTrue(clean.peakBytes < 1024);
+        assertEquals(1, clean.storage[0]);
+    }
+}
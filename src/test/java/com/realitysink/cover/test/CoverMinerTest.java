@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.realitysink.cover.ComputationResult;
+import com.realitysink.cover.CoverExecutor;
+import com.realitysink.cover.CoverMiner;
+
+public class CoverMinerTest {
+    private static final String HEADER = "uint m[12];\nuint s[4];\nuint r[2];\n";
+
+    private static ComputationResult template() {
+        ComputationResult template = new ComputationResult();
+        // a hash beats the target as soon as its first byte is below 0x7f
+        Arrays.fill(template.targetWas, (byte) 0x7f);
+        template.storage = new int[4];
+        template.storage_size = 4;
+        return template;
+    }
+
+    private static CoverMiner.Result mine(String program) throws Exception {
+        Source source = CoverExecutor.createSource(program);
+        ComputationResult template = template();
+        CoverMiner miner = new CoverMiner(new CoverExecutor(), 2, 8);
+        return miner.mine(source, template, CoverMiner.interleaved(template.personalized_ints, 2), 60000);
+    }
+
+    @Test
+    public void findsSolution() throws Exception {
+        CoverMiner.Result result = mine(HEADER + "void main_proxy() {\n" +
+                        "    pull_the_rest(m, s);\n" +
+                        "    r[0] = check_pow(m[0], m[1], m[2], m[3]);\n" +
+                        "    sync_r();\n" +
+                        "}\n");
+        assertNotNull(result.getSolution());
+        assertTrue(result.getSolution().isPow);
+        assertNull(result.getFailure());
+        assertTrue(result.getTotalHashes() > 0);
+    }
+
+    @Test
+    public void stopsWhenTheProgramFails() throws Exception {
+        CoverMiner.Result result = mine(HEADER + "void main_proxy() {\n" +
+                        "    pull_the_rest(m, s);\n" +
+                        "    s[m[0] + 4] = 1;\n" +
+                        "}\n");
+        assertNull(result.getSolution());
+        assertNotNull(result.getFailure());
+        assertNotNull(result.getFailure().failure);
+        assertEquals(0, result.getTotalHashes());
+    }
+}
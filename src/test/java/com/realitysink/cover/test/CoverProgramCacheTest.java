@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Gerard Krol
+ * Copyright (c) 2018 Tyler Durden (GPG AAB252C6)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.realitysink.cover.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import com.realitysink.cover.CoverExecutor;
+import com.realitysink.cover.nodes.CoverScope;
+import com.realitysink.cover.runtime.CoverProgram;
+import com.realitysink.cover.runtime.CoverProgramCache;
+import com.realitysink.cover.runtime.CoverProgramInstance;
+
+public class CoverProgramCacheTest {
+
+    @BeforeClass
+    public static void createEngine() {
+        // the entry root node of a program needs the language to be loaded by an engine
+        PolyglotEngine.newBuilder().build();
+    }
+
+    private static CoverProgram program(String code) throws Exception {
+        Source source = CoverExecutor.createSource(code);
+        // the cache never runs the programs, so they get an empty instance instead of a parsed one
+        CoverProgramInstance instance = new CoverProgramInstance(null, null, new CoverScope(null), null);
+        return new CoverProgram(CoverProgramCache.keyOf(source), source, instance);
+    }
+
+    @Test
+    public void hitsOnIdenticalSource() throws Exception {
+        CoverProgramCache cache = new CoverProgramCache(4);
+        CoverProgram program = program("int main() { return 1; }");
+        cache.put(program);
+
+        assertSame(program, cache.lookup(CoverProgramCache.keyOf(CoverExecutor.createSource("int main() { return 1; }"))));
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void missesOnChangedSource() throws Exception {
+        CoverProgramCache cache = new CoverProgramCache(4);
+        cache.put(program("int main() { return 1; }"));
+
+        String changed = CoverProgramCache.keyOf(CoverExecutor.createSource("int main() { return 2; }"));
+        assertNotEquals(CoverProgramCache.keyOf(CoverExecutor.createSource("int main() { return 1; }")), changed);
+        assertNull(cache.lookup(changed));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedAtCapacity() throws Exception {
+        CoverProgramCache cache = new CoverProgramCache(2);
+        CoverProgram a = program("int a;");
+        CoverProgram b = program("int b;");
+        CoverProgram c = program("int c;");
+        cache.put(a);
+        cache.put(b);
+        // a is now used more recently than b
+        assertSame(a, cache.lookup(a.getKey()));
+        cache.put(c);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(a, cache.lookup(a.getKey()));
+        assertNull(cache.lookup(b.getKey()));
+        assertSame(c, cache.lookup(c.getKey()));
+    }
+
+    @Test
+    public void keepsPinnedProgramsWhenShrinking() throws Exception {
+        CoverProgramCache cache = new CoverProgramCache(3);
+        CoverProgram pinned = program("int pinned;");
+        CoverProgram other = program("int other;");
+        cache.pin(pinned);
+        cache.put(other);
+        cache.put(program("int third;"));
+
+        cache.setMaximumSize(0);
+        assertEquals(1, cache.size());
+        assertSame(pinned, cache.lookup(pinned.getKey()));
+        assertNull(cache.lookup(other.getKey()));
+
+        cache.unpin(pinned);
+        assertEquals(0, cache.size());
+    }
+}